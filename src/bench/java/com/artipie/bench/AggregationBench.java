@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.bench;
+
+import com.artipie.asto.Content;
+import com.artipie.goproxy.Aggregation;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link Aggregation} behind {@code Goproxy.readCompletely}:
+ * aggregates one megabyte of content split into the given number of chunks,
+ * with and without the content size known up front.
+ * @since 0.4
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AggregationBench {
+
+    /**
+     * Total content size.
+     */
+    private static final int TOTAL = 1 << 20;
+
+    /**
+     * Number of chunks the content is split into.
+     */
+    @Param({"1", "16", "256", "4096"})
+    public int chunks;
+
+    /**
+     * Whether content size is known.
+     */
+    @Param({"true", "false"})
+    public boolean sized;
+
+    /**
+     * Content chunks.
+     */
+    private ByteBuffer[] buffers;
+
+    /**
+     * Prepares content chunks.
+     */
+    @Setup
+    public void setup() {
+        final int size = AggregationBench.TOTAL / this.chunks;
+        this.buffers = new ByteBuffer[this.chunks];
+        for (int idx = 0; idx < this.chunks; ++idx) {
+            this.buffers[idx] = ByteBuffer.wrap(new byte[size]);
+        }
+    }
+
+    /**
+     * Reads the content into a single buffer.
+     * @return Aggregated buffer
+     */
+    @Benchmark
+    public ByteBuffer read() {
+        final Flowable<ByteBuffer> data = Flowable.fromArray(this.buffers)
+            .map(ByteBuffer::duplicate);
+        final Content content;
+        if (this.sized) {
+            content = new Content.From(AggregationBench.TOTAL, data);
+        } else {
+            content = new Content.From(data);
+        }
+        return new Aggregation(content).single().blockingGet();
+    }
+}
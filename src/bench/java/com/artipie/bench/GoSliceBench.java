@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.bench;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.goproxy.Goproxy;
+import com.artipie.http.GoSlice;
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import io.reactivex.Flowable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link GoSlice} routing: serves one request of the given
+ * kind from a repository with a published module.
+ * @since 0.4
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GoSliceBench {
+
+    /**
+     * Requested path.
+     */
+    @Param({
+        "example.com/bench/go/@v/v1.0.0.info",
+        "example.com/bench/go/@v/v1.0.0.mod",
+        "example.com/bench/go/@v/v1.0.0.zip",
+        "example.com/bench/go/@v/list",
+        "example.com/bench/go/@latest",
+        "example.com/bench/go/@v/v9.9.9.info"
+    })
+    public String path;
+
+    /**
+     * Slice under test.
+     */
+    private Slice slice;
+
+    /**
+     * Request line.
+     */
+    private String line;
+
+    /**
+     * Publishes a module.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("bench/go/go.mod"), "module example.com/bench/go".getBytes());
+        bsto.save(new Key.From("bench/go/go.go"), "package go".getBytes());
+        new Goproxy(storage).update("example.com/bench/go", "1.0.0").blockingAwait();
+        this.slice = new GoSlice(storage);
+        this.line = String.format("GET %s HTTP/1.1", this.path);
+    }
+
+    /**
+     * Serves the request and reads the response body.
+     */
+    @Benchmark
+    public void serve() {
+        LatestSliceBench.consume(
+            this.slice.response(this.line, Headers.EMPTY, Flowable.empty())
+        );
+    }
+}
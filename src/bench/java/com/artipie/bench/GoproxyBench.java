@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.bench;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.goproxy.Goproxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link Goproxy#update(String, String)}: publishes one version
+ * of a module with the given number of source files of the given size.
+ * @since 0.4
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GoproxyBench {
+
+    /**
+     * Module name.
+     */
+    private static final String MODULE = "example.com/bench/mod";
+
+    /**
+     * Number of source files in the module.
+     */
+    @Param({"1", "50", "500"})
+    public int files;
+
+    /**
+     * Size of each source file in bytes.
+     */
+    @Param({"1024", "65536"})
+    public int size;
+
+    /**
+     * Storage with module sources.
+     */
+    private Storage storage;
+
+    /**
+     * Next version to publish.
+     */
+    private int version;
+
+    /**
+     * Fills storage with module sources.
+     * @throws Exception If fails
+     */
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+        this.storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(this.storage);
+        bsto.save(new Key.From("bench/mod/go.mod"), "module example.com/bench/mod".getBytes());
+        final byte[] data = new byte[this.size];
+        Arrays.fill(data, (byte) 'a');
+        for (int idx = 0; idx < this.files; ++idx) {
+            bsto.save(new Key.From(String.format("bench/mod/file%d.go", idx)), data);
+        }
+        this.version = 0;
+    }
+
+    /**
+     * Publishes next version of the module.
+     */
+    @Benchmark
+    public void update() {
+        this.version += 1;
+        new Goproxy(this.storage)
+            .update(GoproxyBench.MODULE, String.format("0.0.%d", this.version))
+            .blockingAwait();
+    }
+}
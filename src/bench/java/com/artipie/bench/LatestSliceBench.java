@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.bench;
+
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.LatestSlice;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.slice.KeyFromPath;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link LatestSlice}: resolves {@code @latest} of a module
+ * with the given number of published versions.
+ * @since 0.4
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LatestSliceBench {
+
+    /**
+     * Number of published versions.
+     */
+    @Param({"10", "100", "1000"})
+    public int versions;
+
+    /**
+     * Slice under test.
+     */
+    private Slice slice;
+
+    /**
+     * Publishes module versions.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (int idx = 0; idx < this.versions; ++idx) {
+            final String base = String.format("example.com/bench/latest/@v/v1.0.%d", idx);
+            bsto.save(new KeyFromPath(String.format("%s.mod", base)), new byte[0]);
+            bsto.save(new KeyFromPath(String.format("%s.zip", base)), new byte[0]);
+            bsto.save(
+                new KeyFromPath(String.format("%s.info", base)),
+                String.format(
+                    "{\"Version\":\"v1.0.%d\",\"Time\":\"2020-01-01T00:00:00Z\"}", idx
+                ).getBytes(StandardCharsets.US_ASCII)
+            );
+        }
+        this.slice = new LatestSlice(storage);
+    }
+
+    /**
+     * Resolves latest version and reads the response body.
+     */
+    @Benchmark
+    public void latest() {
+        LatestSliceBench.consume(
+            this.slice.response(
+                "GET example.com/bench/latest/@latest HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            )
+        );
+    }
+
+    /**
+     * Sends response and waits until its body is read.
+     * @param response Response
+     */
+    static void consume(final Response response) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> {
+                Flowable.fromPublisher(body).ignoreElements().subscribe(
+                    () -> done.complete(null), done::completeExceptionally
+                );
+                return done;
+            }
+        ).toCompletableFuture().join();
+        done.join();
+    }
+}
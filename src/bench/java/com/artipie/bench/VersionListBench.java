@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.bench;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.goproxy.Goproxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the versions index update: publishes one version of a single-file
+ * module whose index already holds the given number of versions, so the growth
+ * of the time with the index size is the cost of adding the version to the index
+ * and appending it to {@code @v/list}.
+ * The index and the list are restored before each invocation, so they don't grow
+ * during the measurement.
+ * @since 0.4
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VersionListBench {
+
+    /**
+     * Module name.
+     */
+    private static final String MODULE = "example.com/bench/list";
+
+    /**
+     * Versions list file.
+     */
+    private static final String LIST = "@v/list";
+
+    /**
+     * Versions index file.
+     */
+    private static final String INDEX = "@index";
+
+    /**
+     * Number of versions already in the list.
+     */
+    @Param({"10", "100", "1000", "10000"})
+    public int versions;
+
+    /**
+     * Storage with the list.
+     */
+    private Storage storage;
+
+    /**
+     * Initial list content.
+     */
+    private byte[] list;
+
+    /**
+     * Initial index content.
+     */
+    private byte[] index;
+
+    /**
+     * Builds module sources, the initial list and the index of the listed versions.
+     * @throws Exception If fails
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final StringBuilder text = new StringBuilder();
+        for (int idx = 0; idx < this.versions; ++idx) {
+            text.append(String.format("v1.0.%d\n", idx));
+        }
+        this.storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(this.storage);
+        bsto.save(new Key.From("bench/list/go.mod"), "module example.com/bench/list".getBytes());
+        bsto.save(new Key.From("bench/list/list.go"), "package list".getBytes());
+        bsto.save(
+            VersionListBench.key(VersionListBench.LIST),
+            text.toString().getBytes(StandardCharsets.US_ASCII)
+        );
+        new Goproxy(this.storage).update(VersionListBench.MODULE, "0.0.1").blockingAwait();
+        this.list = bsto.value(VersionListBench.key(VersionListBench.LIST));
+        this.index = bsto.value(VersionListBench.key(VersionListBench.INDEX));
+    }
+
+    /**
+     * Restores the initial list and index.
+     * @throws Exception If fails
+     */
+    @Setup(Level.Invocation)
+    public void restore() throws Exception {
+        final BlockingStorage bsto = new BlockingStorage(this.storage);
+        bsto.save(VersionListBench.key(VersionListBench.LIST), this.list);
+        bsto.save(VersionListBench.key(VersionListBench.INDEX), this.index);
+    }
+
+    /**
+     * Publishes new version of the module.
+     */
+    @Benchmark
+    public void add() {
+        new Goproxy(this.storage).update(VersionListBench.MODULE, "2.0.0").blockingAwait();
+    }
+
+    /**
+     * Key of the module file.
+     * @param name File name
+     * @return Key
+     */
+    private static Key key(final String name) {
+        return new Key.From(String.format("%s/%s", VersionListBench.MODULE, name));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Aggregation of all content bytes into single buffer.
+ * <p>
+ * When content size is known, the result buffer is allocated once and chunks are
+ * copied into it as they arrive. Otherwise chunks are collected into a list and
+ * copied into the result buffer once the content is completed.
+ * Result buffer may be taken from {@link BufferPool}, in this case it's up to
+ * the caller to release it back to the pool after usage.
+ * @since 0.4
+ */
+public final class Aggregation {
+
+    /**
+     * Content to aggregate.
+     */
+    private final Content content;
+
+    /**
+     * Buffers pool.
+     */
+    private final BufferPool pool;
+
+    /**
+     * Ctor.
+     * @param content Content to aggregate
+     */
+    public Aggregation(final Content content) {
+        this(content, BufferPool.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param content Content to aggregate
+     * @param pool Buffers pool
+     */
+    public Aggregation(final Content content, final BufferPool pool) {
+        this.content = content;
+        this.pool = pool;
+    }
+
+    /**
+     * All content bytes in single buffer.
+     * @return Buffer with position at 0 and limit at the end of the data
+     */
+    public Single<ByteBuffer> single() {
+        return Flowable.fromPublisher(this.content)
+            .collect(() -> new Chunks(this.pool, this.content.size()), Chunks::add)
+            .map(Chunks::buffer);
+    }
+
+    /**
+     * Collected chunks.
+     * @since 0.4
+     */
+    private static final class Chunks {
+
+        /**
+         * Buffers pool.
+         */
+        private final BufferPool pool;
+
+        /**
+         * Buffer preallocated for the known content size, empty if size is unknown.
+         */
+        private final ByteBuffer target;
+
+        /**
+         * Chunks which didn't fit into preallocated buffer.
+         */
+        private final List<ByteBuffer> rest;
+
+        /**
+         * Total bytes count in the rest chunks.
+         */
+        private long total;
+
+        /**
+         * Ctor.
+         * @param pool Buffers pool
+         * @param size Content size
+         */
+        Chunks(final BufferPool pool, final Optional<Long> size) {
+            this.pool = pool;
+            this.target = Chunks.preallocated(pool, size);
+            this.rest = new ArrayList<>(0);
+        }
+
+        /**
+         * Add chunk.
+         * @param chunk Chunk of data
+         */
+        void add(final ByteBuffer chunk) {
+            if (this.rest.isEmpty() && this.target.remaining() >= chunk.remaining()) {
+                this.target.put(chunk.duplicate());
+            } else {
+                this.rest.add(chunk.duplicate());
+                this.total += chunk.remaining();
+            }
+        }
+
+        /**
+         * Result buffer.
+         * @return All bytes in single buffer
+         */
+        @SuppressWarnings("cast")
+        ByteBuffer buffer() {
+            final ByteBuffer res;
+            if (this.rest.isEmpty()) {
+                res = this.target;
+            } else {
+                final long size = this.total + this.target.position();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalStateException(
+                        String.format("Content is too big to aggregate: %d bytes", size)
+                    );
+                }
+                res = this.pool.acquire((int) size);
+                res.put((ByteBuffer) this.target.flip());
+                this.pool.release(this.target);
+                for (final ByteBuffer chunk : this.rest) {
+                    res.put(chunk);
+                }
+            }
+            return (ByteBuffer) res.flip();
+        }
+
+        /**
+         * Buffer preallocated for the content size.
+         * @param pool Buffers pool
+         * @param size Content size
+         * @return Buffer, empty if content size is unknown
+         */
+        private static ByteBuffer preallocated(final BufferPool pool, final Optional<Long> size) {
+            final ByteBuffer res;
+            if (size.isPresent() && size.get() <= Integer.MAX_VALUE) {
+                res = pool.acquire(size.get().intValue());
+            } else {
+                res = ByteBuffer.allocate(0);
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Module ZIP archive options.
+ * <p>
+ * Options are immutable, every {@code with} method returns new options instance:
+ * <pre> new Goproxy(
+ *     storage, 3,
+ *     ArchiveOptions.DEFAULT.withLevel(1).withStored(".png", ".gz")
+ * );</pre>
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ArchiveOptions {
+
+    /**
+     * Default options: source files are fetched one by one, entries have
+     * archive creation time and are compressed with default level on one thread,
+     * compressed entries are not cached.
+     */
+    public static final ArchiveOptions DEFAULT = new ArchiveOptions(
+        1, false, Deflater.DEFAULT_COMPRESSION, Collections.emptySet(), Long.MAX_VALUE, 1, false
+    );
+
+    /**
+     * Entries modification time of reproducible archive: 1980-01-01 00:00:00,
+     * the earliest time ZIP format can store.
+     * @checkstyle MagicNumberCheck (3 lines)
+     */
+    private static final LocalDateTime FIXED_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);
+
+    /**
+     * Number of source files fetched from the storage concurrently.
+     */
+    private final int window;
+
+    /**
+     * Is archive reproducible.
+     */
+    private final boolean fixed;
+
+    /**
+     * Compression level.
+     */
+    private final int deflate;
+
+    /**
+     * Extensions of files to store without compression.
+     */
+    private final Set<String> extensions;
+
+    /**
+     * Min size of file to compress on several threads.
+     */
+    private final long threshold;
+
+    /**
+     * Max number of blocks of one file compressed at the same time.
+     */
+    private final int threads;
+
+    /**
+     * Are compressed entries cached.
+     */
+    private final boolean reuse;
+
+    /**
+     * Ctor.
+     * @param window Number of source files fetched from the storage concurrently
+     * @param fixed Is archive reproducible
+     * @param deflate Compression level
+     * @param extensions Extensions of files to store without compression
+     * @param threshold Min size of file to compress on several threads
+     * @param threads Max number of blocks of one file compressed at the same time
+     * @param reuse Are compressed entries cached
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private ArchiveOptions(final int window, final boolean fixed, final int deflate,
+        final Set<String> extensions, final long threshold, final int threads,
+        final boolean reuse) {
+        this.window = window;
+        this.fixed = fixed;
+        this.deflate = deflate;
+        this.extensions = extensions;
+        this.threshold = threshold;
+        this.threads = threads;
+        this.reuse = reuse;
+    }
+
+    /**
+     * Fetch source files concurrently: up to given number of files are read from
+     * the storage in advance and kept in memory until they are written to the archive.
+     * @param files Number of source files fetched concurrently, 1 to stream files one by one
+     * @return Options
+     */
+    public ArchiveOptions withPrefetch(final int files) {
+        if (files < 1) {
+            throw new IllegalArgumentException(
+                String.format("Prefetch window should be positive: %d", files)
+            );
+        }
+        return new ArchiveOptions(
+            files, this.fixed, this.deflate, this.extensions, this.threshold, this.threads,
+            this.reuse
+        );
+    }
+
+    /**
+     * Make archive reproducible: the same sources produce byte to byte the same
+     * archive. Entries get fixed modification time and no extra fields;
+     * entries are always sorted by name.
+     * @return Options
+     */
+    public ArchiveOptions withReproducible() {
+        return new ArchiveOptions(
+            this.window, true, this.deflate, this.extensions, this.threshold, this.threads,
+            this.reuse
+        );
+    }
+
+    /**
+     * Compression level.
+     * @param level Level from 0 (no compression) to 9 (best compression)
+     * @return Options
+     */
+    public ArchiveOptions withLevel(final int level) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException(
+                String.format("Compression level should be from 0 to 9: %d", level)
+            );
+        }
+        return new ArchiveOptions(
+            this.window, this.fixed, level, this.extensions, this.threshold, this.threads,
+            this.reuse
+        );
+    }
+
+    /**
+     * Store files with given extensions without compression, e.g. files
+     * which are compressed already.
+     * @param ext File extensions, e.g. ".png", ".gz"
+     * @return Options
+     */
+    public ArchiveOptions withStored(final String... ext) {
+        final Set<String> set = new HashSet<>(this.extensions);
+        for (final String item : ext) {
+            set.add(item.toLowerCase(Locale.US));
+        }
+        return new ArchiveOptions(
+            this.window, this.fixed, this.deflate, Collections.unmodifiableSet(set),
+            this.threshold, this.threads, this.reuse
+        );
+    }
+
+    /**
+     * Compress large files on several CPU cores: file is split into blocks,
+     * blocks are compressed concurrently and joined into single deflate stream.
+     * Archive gets a bit larger than with single thread compression.
+     * @param size Min size of file to compress in parallel, in bytes
+     * @param blocks Max number of blocks of one file compressed at the same time
+     * @return Options
+     */
+    public ArchiveOptions withParallelDeflate(final long size, final int blocks) {
+        if (blocks < 1) {
+            throw new IllegalArgumentException(
+                String.format("Blocks number should be positive: %d", blocks)
+            );
+        }
+        return new ArchiveOptions(
+            this.window, this.fixed, this.deflate, this.extensions, size, blocks, this.reuse
+        );
+    }
+
+    /**
+     * Cache compressed entries in the storage next to the module, so the files
+     * which didn't change since previous version are copied to the archive as is
+     * instead of being compressed again. Compressed data of every file is saved to
+     * {@code <module>/@deflated/} keyed by SHA-256 of the file and compression mode;
+     * files are read completely to calculate the key before they are written.
+     * Once the archive is saved, cached entries it didn't use are removed, so the cache
+     * holds the entries of the latest archive only.
+     * @return Options
+     */
+    public ArchiveOptions withEntryCache() {
+        return new ArchiveOptions(
+            this.window, this.fixed, this.deflate, this.extensions, this.threshold, this.threads,
+            true
+        );
+    }
+
+    /**
+     * Number of source files fetched from the storage concurrently.
+     * @return Prefetch window
+     */
+    int prefetch() {
+        return this.window;
+    }
+
+    /**
+     * Entry modification time.
+     * @return Time
+     */
+    LocalDateTime time() {
+        final LocalDateTime res;
+        if (this.fixed) {
+            res = ArchiveOptions.FIXED_TIME;
+        } else {
+            res = LocalDateTime.now();
+        }
+        return res;
+    }
+
+    /**
+     * Compression level.
+     * @return Level
+     */
+    int level() {
+        return this.deflate;
+    }
+
+    /**
+     * Should file be stored without compression.
+     * @param name File name
+     * @return True if file should not be compressed
+     */
+    boolean stored(final String name) {
+        final String lower = name.toLowerCase(Locale.US);
+        boolean res = false;
+        for (final String ext : this.extensions) {
+            if (lower.endsWith(ext)) {
+                res = true;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Should file be compressed on several threads.
+     * @param size File size if known
+     * @return True for large files
+     */
+    boolean parallel(final Optional<Long> size) {
+        return size.isPresent() && size.get() >= this.threshold;
+    }
+
+    /**
+     * Max number of blocks of one file compressed at the same time.
+     * @return Blocks number
+     */
+    int blocks() {
+        return this.threads;
+    }
+
+    /**
+     * Are compressed entries cached.
+     * @return True if compressed entries are reused
+     */
+    boolean cached() {
+        return this.reuse;
+    }
+}
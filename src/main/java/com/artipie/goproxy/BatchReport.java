@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of the batch update, see {@link Goproxy#updateAll(java.util.Collection, int)}.
+ * @since 0.4
+ */
+public final class BatchReport {
+
+    /**
+     * Updated versions.
+     */
+    private final List<Item> versions;
+
+    /**
+     * Time spent writing artifact files.
+     */
+    private final Duration written;
+
+    /**
+     * Total time of the update.
+     */
+    private final Duration elapsed;
+
+    /**
+     * Ctor.
+     * @param versions Updated versions
+     * @param written Time spent writing artifact files
+     * @param elapsed Total time of the update
+     */
+    BatchReport(final List<Item> versions, final Duration written, final Duration elapsed) {
+        this.versions = versions;
+        this.written = written;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Results of the versions in the order they were requested.
+     * @return Items
+     */
+    public List<Item> items() {
+        return this.versions;
+    }
+
+    /**
+     * Are all the versions updated.
+     * @return True if no version failed
+     */
+    public boolean successful() {
+        boolean res = true;
+        for (final Item item : this.versions) {
+            res = res && !item.error().isPresent();
+        }
+        return res;
+    }
+
+    /**
+     * Time spent writing artifact files of all the versions.
+     * @return Duration
+     */
+    public Duration artifacts() {
+        return this.written;
+    }
+
+    /**
+     * Time spent updating versions indexes, lists and latest version indexes.
+     * @return Duration
+     */
+    public Duration indexes() {
+        return this.elapsed.minus(this.written);
+    }
+
+    /**
+     * Total time of the update.
+     * @return Duration
+     */
+    public Duration total() {
+        return this.elapsed;
+    }
+
+    /**
+     * Result of one version update.
+     * @since 0.4
+     */
+    public static final class Item {
+
+        /**
+         * Module path.
+         */
+        private final String path;
+
+        /**
+         * Version.
+         */
+        private final String number;
+
+        /**
+         * Error if version failed.
+         */
+        private final Optional<Throwable> failure;
+
+        /**
+         * Time spent writing artifact files of the version.
+         */
+        private final Duration written;
+
+        /**
+         * Ctor.
+         * @param path Module path
+         * @param number Version
+         * @param failure Error if version failed
+         * @param written Time spent writing artifact files of the version
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Item(final String path, final String number, final Optional<Throwable> failure,
+            final Duration written) {
+            this.path = path;
+            this.number = number;
+            this.failure = failure;
+            this.written = written;
+        }
+
+        /**
+         * Module path.
+         * @return Module path, e.g. "example.com/foo/bar"
+         */
+        public String module() {
+            return this.path;
+        }
+
+        /**
+         * Version.
+         * @return Version, e.g. "0.0.1"
+         */
+        public String version() {
+            return this.number;
+        }
+
+        /**
+         * Error: the version is not listed if its artifacts or module index failed.
+         * @return Error if version failed
+         */
+        public Optional<Throwable> error() {
+            return this.failure;
+        }
+
+        /**
+         * Time spent writing artifact files of the version.
+         * @return Duration
+         */
+        public Duration artifacts() {
+            return this.written;
+        }
+
+        /**
+         * Copy with another error.
+         * @param err Error
+         * @return Item
+         */
+        Item failed(final Throwable err) {
+            return new Item(this.path, this.number, Optional.of(err), this.written);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of byte buffers.
+ * @since 0.4
+ */
+public interface BufferPool {
+
+    /**
+     * Pool which doesn't keep anything and always allocates new buffers.
+     */
+    BufferPool NONE = new BufferPool() {
+        @Override
+        public ByteBuffer acquire(final int size) {
+            return ByteBuffer.allocate(size);
+        }
+
+        @Override
+        public void release(final ByteBuffer buffer) {
+            // nothing to keep
+        }
+    };
+
+    /**
+     * Acquire a buffer.
+     * @param size Required size
+     * @return Empty buffer with position 0 and limit equal to size
+     */
+    ByteBuffer acquire(int size);
+
+    /**
+     * Return buffer to the pool, it should not be used by the caller anymore.
+     * @param buffer Buffer
+     */
+    void release(ByteBuffer buffer);
+
+    /**
+     * Bounded pool of heap buffers grouped by power of two capacity.
+     * @since 0.4
+     */
+    final class Bounded implements BufferPool {
+
+        /**
+         * Max buffers count kept per capacity.
+         */
+        private final int depth;
+
+        /**
+         * Max capacity of buffer to keep in the pool.
+         */
+        private final int max;
+
+        /**
+         * Buffers by capacity.
+         */
+        private final Map<Integer, Queue<ByteBuffer>> buffers;
+
+        /**
+         * Ctor.
+         * @param depth Max buffers count kept per capacity
+         * @param max Max capacity of buffer to keep in the pool
+         */
+        public Bounded(final int depth, final int max) {
+            this.depth = depth;
+            this.max = max;
+            this.buffers = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public ByteBuffer acquire(final int size) {
+            final ByteBuffer res;
+            if (size > this.max) {
+                res = ByteBuffer.allocate(size);
+            } else {
+                final int capacity = Bounded.capacity(size);
+                final ByteBuffer pooled = this.queue(capacity).poll();
+                if (pooled == null) {
+                    res = ByteBuffer.allocate(capacity);
+                } else {
+                    res = pooled;
+                }
+                res.clear();
+                res.limit(size);
+            }
+            return res;
+        }
+
+        @Override
+        public void release(final ByteBuffer buffer) {
+            final int capacity = buffer.capacity();
+            if (!buffer.isDirect() && capacity <= this.max
+                && Bounded.capacity(capacity) == capacity) {
+                this.queue(capacity).offer(buffer);
+            }
+        }
+
+        /**
+         * Queue of buffers with given capacity.
+         * @param capacity Capacity
+         * @return Queue
+         */
+        private Queue<ByteBuffer> queue(final int capacity) {
+            return this.buffers.computeIfAbsent(
+                capacity, cap -> new ArrayBlockingQueue<>(this.depth)
+            );
+        }
+
+        /**
+         * Pooled capacity for the size: nearest power of two.
+         * @param size Size
+         * @return Capacity
+         */
+        private static int capacity(final int size) {
+            final int res;
+            if (size <= 1) {
+                res = 1;
+            } else {
+                res = Integer.highestOneBit(size - 1) << 1;
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.ext.Digests;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Go {@code h1:} hash of a set of files, as it's written to {@code go.sum}.
+ * <p>
+ * It's SHA-256 of the summary made of {@code <sha256 hex>  <file name>} lines
+ * sorted by file name, see {@code Hash1} of {@code golang.org/x/mod/sumdb/dirhash}.
+ * Module zip is hashed by its entries, {@code go.mod} as a single file
+ * named {@code go.mod}.
+ * @since 0.4
+ */
+public final class DirHash {
+
+    /**
+     * SHA-256 hex of files by name.
+     */
+    private final ConcurrentNavigableMap<String, String> files;
+
+    /**
+     * Ctor.
+     */
+    public DirHash() {
+        this.files = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Add file.
+     * @param name File name
+     * @param sha SHA-256 of the file as lower-case hex
+     * @return Itself
+     */
+    public DirHash with(final String name, final String sha) {
+        this.files.put(name, sha);
+        return this;
+    }
+
+    /**
+     * Add file.
+     * @param name File name
+     * @param sha SHA-256 of the file
+     * @return Itself
+     */
+    public DirHash with(final String name, final byte[] sha) {
+        return this.with(name, String.format("%064x", new BigInteger(1, sha)));
+    }
+
+    /**
+     * Hash value.
+     * @return Hash with {@code h1:} prefix
+     */
+    public String value() {
+        final MessageDigest summary = Digests.SHA256.get();
+        for (final Map.Entry<String, String> file : this.files.entrySet()) {
+            summary.update(
+                String.format("%s  %s\n", file.getValue(), file.getKey())
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        return String.format("h1:%s", Base64.getEncoder().encodeToString(summary.digest()));
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.rx.RxStorage;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of compressed archive entries, kept in the storage next to the module.
+ * <p>
+ * Every cached entry is a file {@code <module>/@deflated/<sha256>.<mode>} named
+ * by SHA-256 of the source file and compression mode, it holds CRC-32 and size of
+ * the source file followed by the compressed data, so the data can be copied
+ * to the archive of a new version byte to byte when the file is not changed.
+ * <p>
+ * The cache keeps entries of the latest archive only: once the archive is written,
+ * {@link #prune()} removes the entries it didn't use, so the cache doesn't grow with
+ * every published version. Archives of the same module written at once may compress
+ * again some files of each other.
+ * @since 0.4
+ */
+final class EntryCache {
+
+    /**
+     * Cache directory name in the module.
+     */
+    static final String DIR = "@deflated";
+
+    /**
+     * The storage.
+     */
+    private final RxStorage storage;
+
+    /**
+     * Module path.
+     */
+    private final String module;
+
+    /**
+     * Keys of the entries used by the archive.
+     */
+    private final Set<String> used;
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param module Module path, e.g. "example.com/foo/bar"
+     */
+    EntryCache(final RxStorage storage, final String module) {
+        this.storage = storage;
+        this.module = module;
+        this.used = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Key of cached entry.
+     * @param source Source file bytes
+     * @param mode Compression mode, entries compressed differently are cached apart
+     * @return Key
+     */
+    Key key(final byte[] source, final String mode) {
+        final Key res = new Key.From(
+            String.format(
+                "%s/%s/%064x.%s",
+                this.module, EntryCache.DIR,
+                new BigInteger(1, Digests.SHA256.get().digest(source)), mode
+            )
+        );
+        this.used.add(res.string());
+        return res;
+    }
+
+    /**
+     * Cached entry, read by single storage request: missing entry is reported
+     * by the storage as {@link ValueNotFoundException}.
+     * @param key Entry key
+     * @return Entry or empty if it's not cached yet
+     */
+    Maybe<Deflated> load(final Key key) {
+        return this.storage.value(key)
+            .flatMap(content -> new Aggregation(content).single())
+            .map(buf -> new Deflated(new Remaining(buf).bytes()))
+            .filter(Deflated::valid)
+            .onErrorResumeNext(
+                (Throwable err) -> {
+                    final Maybe<Deflated> res;
+                    if (err instanceof ValueNotFoundException
+                        || err.getCause() instanceof ValueNotFoundException) {
+                        res = Maybe.empty();
+                    } else {
+                        res = Maybe.error(err);
+                    }
+                    return res;
+                }
+            );
+    }
+
+    /**
+     * Cache compressed entry.
+     * @param key Entry key
+     * @param entry Compressed entry
+     * @return Completion or error signal
+     */
+    Completable save(final Key key, final Deflated entry) {
+        return Completable.defer(
+            () -> this.storage.save(key, new Content.From(entry.bytes()))
+        );
+    }
+
+    /**
+     * Remove cached entries which were not used by the archive, i.e. their keys
+     * were not requested from this cache.
+     * @return Completion or error signal
+     */
+    Completable prune() {
+        return this.storage.list(new Key.From(this.module, EntryCache.DIR))
+            .flatMapCompletable(
+                keys -> Flowable.fromIterable(keys)
+                    .filter(key -> !this.used.contains(key.string()))
+                    .concatMapCompletable(this.storage::delete)
+            );
+    }
+
+    /**
+     * Compressed entry: CRC-32 (4 bytes) and size (8 bytes) of the source
+     * followed by compressed data.
+     * @since 0.4
+     */
+    static final class Deflated {
+
+        /**
+         * Header size.
+         */
+        private static final int HEADER = Integer.BYTES + Long.BYTES;
+
+        /**
+         * Entry bytes.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Ctor.
+         * @param crc CRC-32 of the source
+         * @param size Source size
+         * @param data Compressed data
+         */
+        Deflated(final long crc, final long size, final byte[] data) {
+            this(
+                ByteBuffer.allocate(Deflated.HEADER + data.length)
+                    .putInt((int) crc).putLong(size).put(data).array()
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param bytes Entry bytes
+         */
+        Deflated(final byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        /**
+         * CRC-32 of the source.
+         * @return CRC-32
+         */
+        long crc() {
+            return Integer.toUnsignedLong(this.buffer.getInt(0));
+        }
+
+        /**
+         * Source size.
+         * @return Size
+         */
+        long size() {
+            return this.buffer.getLong(Integer.BYTES);
+        }
+
+        /**
+         * Compressed data.
+         * @return Data bytes
+         */
+        byte[] data() {
+            final byte[] res = new byte[this.buffer.capacity() - Deflated.HEADER];
+            final ByteBuffer dup = this.buffer.duplicate();
+            dup.position(Deflated.HEADER);
+            dup.get(res);
+            return res;
+        }
+
+        /**
+         * Entry bytes.
+         * @return Bytes
+         */
+        byte[] bytes() {
+            return this.buffer.array();
+        }
+
+        /**
+         * Is the entry complete.
+         * @return True if the entry has the header
+         */
+        boolean valid() {
+            return this.buffer.capacity() >= Deflated.HEADER;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.ValueNotFoundException;
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Module {@code go.mod} file, captured while the module archive is written.
+ * <p>
+ * The file bytes are copied as they pass to the archive, so the {@code .mod}
+ * artifact is saved without reading the sources once again. If the module
+ * path is given, {@code module} directive of the file is checked against it
+ * as soon as the file is read, and the file is required to exist.
+ * @since 0.4
+ */
+final class GoMod {
+
+    /**
+     * File name.
+     */
+    static final String NAME = "go.mod";
+
+    /**
+     * Module directive: single line or the first path of the block,
+     * the path may be quoted.
+     */
+    private static final Pattern DIRECTIVE = Pattern.compile(
+        "^\\s*module(?:\\s*\\(\\s*|\\s+)[\"`]?([^\\s\"`)]+)", Pattern.MULTILINE
+    );
+
+    /**
+     * Expected module path, empty to accept any.
+     */
+    private final Optional<String> module;
+
+    /**
+     * Captured file bytes.
+     */
+    private final AtomicReference<byte[]> bytes;
+
+    /**
+     * Ctor.
+     */
+    GoMod() {
+        this(Optional.empty());
+    }
+
+    /**
+     * Ctor.
+     * @param module Expected module path, e.g. "example.com/foo/bar"
+     */
+    GoMod(final String module) {
+        this(Optional.of(module));
+    }
+
+    /**
+     * Ctor.
+     * @param module Expected module path, empty to accept any
+     */
+    private GoMod(final Optional<String> module) {
+        this.module = module;
+        this.bytes = new AtomicReference<>();
+    }
+
+    /**
+     * File data which is captured and checked when it's read.
+     * @param data File data
+     * @return File data
+     */
+    Content tee(final Content data) {
+        return new Content.From(
+            data.size(),
+            Flowable.defer(
+                () -> {
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    return Flowable.fromPublisher(data)
+                        .doOnNext(
+                            buf -> {
+                                final byte[] chunk = new byte[buf.remaining()];
+                                buf.duplicate().get(chunk);
+                                out.write(chunk);
+                            }
+                        )
+                        .doOnComplete(() -> this.capture(out.toByteArray()));
+                }
+            )
+        );
+    }
+
+    /**
+     * Check the file was read, if module path is expected.
+     * @param key File key
+     * @throws ValueNotFoundException If the file is required but was not read
+     */
+    void require(final Key key) {
+        if (this.module.isPresent() && this.bytes.get() == null) {
+            throw new ValueNotFoundException(key);
+        }
+    }
+
+    /**
+     * Captured file content.
+     * @param key File key
+     * @return Content
+     * @throws ValueNotFoundException If the file was not read
+     */
+    Content content(final Key key) {
+        final byte[] data = this.bytes.get();
+        if (data == null) {
+            throw new ValueNotFoundException(key);
+        }
+        return new Content.From(data);
+    }
+
+    /**
+     * Check and keep the file bytes.
+     * @param data File bytes
+     */
+    private void capture(final byte[] data) {
+        if (this.module.isPresent()) {
+            final Matcher matcher = GoMod.DIRECTIVE.matcher(
+                new String(data, StandardCharsets.UTF_8)
+            );
+            if (!matcher.find()) {
+                throw new IllegalStateException("go.mod has no module directive");
+            }
+            if (!matcher.group(1).equals(this.module.get())) {
+                throw new IllegalStateException(
+                    String.format(
+                        "go.mod declares module %s, but %s is published",
+                        matcher.group(1), this.module.get()
+                    )
+                );
+            }
+        }
+        this.bytes.set(data);
+    }
+}
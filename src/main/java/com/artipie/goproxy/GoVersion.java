@@ -0,0 +1,259 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Go module version, e.g. {@code v1.2.3}, {@code v1.2.3-rc.1} or pseudo-version
+ * {@code v0.0.0-20200101120000-abcdef123456}.
+ * <p>
+ * Versions are ordered by semantic versioning precedence: numeric parts are
+ * compared as numbers, so {@code v1.10.0} is greater than {@code v1.9.0}, and
+ * pre-release is lower than its release. Build metadata is ignored. Invalid
+ * versions are lower than any valid one and are ordered as strings.
+ * @since 0.4
+ */
+public final class GoVersion implements Comparable<GoVersion> {
+
+    /**
+     * Order in which {@code go} chooses the latest version of the module:
+     * any release is preferred over pre-releases and any pre-release is
+     * preferred over pseudo-versions, versions of the same kind are ordered by
+     * precedence.
+     */
+    public static final Comparator<GoVersion> LATEST = Comparator
+        .comparing(GoVersion::kind).thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Semantic version pattern.
+     */
+    private static final Pattern SEMVER = Pattern.compile(
+        "v(0|[1-9]\\d*)\\.(0|[1-9]\\d*)\\.(0|[1-9]\\d*)(?:-([0-9A-Za-z.-]+))?(?:\\+[0-9A-Za-z.-]+)?"
+    );
+
+    /**
+     * Pseudo-version pattern.
+     */
+    private static final Pattern PSEUDO = Pattern.compile(
+        "v\\d+\\.(?:0\\.0-|\\d+\\.\\d+-(?:[^+]*\\.)?0\\.)\\d{14}-[A-Za-z0-9]+(?:\\+[0-9A-Za-z.-]+)?"
+    );
+
+    /**
+     * Patch version group of the semantic version pattern.
+     */
+    private static final int PATCH = 3;
+
+    /**
+     * Pre-release group of the semantic version pattern.
+     */
+    private static final int PRE = 4;
+
+    /**
+     * Pre-release identifiers separator.
+     */
+    private static final Pattern DOT = Pattern.compile("\\.");
+
+    /**
+     * Version text.
+     */
+    private final String text;
+
+    /**
+     * Ctor.
+     * @param text Version text, e.g. "v1.2.3"
+     */
+    public GoVersion(final String text) {
+        this.text = text;
+    }
+
+    @Override
+    public int compareTo(final GoVersion other) {
+        final Matcher mine = GoVersion.SEMVER.matcher(this.text);
+        final Matcher theirs = GoVersion.SEMVER.matcher(other.text);
+        final boolean valid = mine.matches();
+        int res = Boolean.compare(valid, theirs.matches());
+        if (res == 0 && valid) {
+            for (int group = 1; group <= GoVersion.PATCH && res == 0; group = group + 1) {
+                res = GoVersion.numeric(mine.group(group), theirs.group(group));
+            }
+            if (res == 0) {
+                res = GoVersion.prerelease(mine.group(GoVersion.PRE), theirs.group(GoVersion.PRE));
+            }
+        } else if (res == 0) {
+            res = this.text.compareTo(other.text);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other
+            || other instanceof GoVersion && this.compareTo((GoVersion) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        final Matcher matcher = GoVersion.SEMVER.matcher(this.text);
+        final int res;
+        if (matcher.matches()) {
+            res = String.join(
+                ".", matcher.group(1), matcher.group(2), matcher.group(GoVersion.PATCH),
+                String.valueOf(matcher.group(GoVersion.PRE))
+            ).hashCode();
+        } else {
+            res = this.text.hashCode();
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+
+    /**
+     * Kind of the version for latest version choice.
+     * @return Version kind
+     */
+    private Kind kind() {
+        final Matcher matcher = GoVersion.SEMVER.matcher(this.text);
+        final Kind res;
+        if (matcher.matches()) {
+            if (matcher.group(GoVersion.PRE) == null) {
+                res = Kind.RELEASE;
+            } else if (GoVersion.PSEUDO.matcher(this.text).matches()) {
+                res = Kind.PSEUDO;
+            } else {
+                res = Kind.PRERELEASE;
+            }
+        } else {
+            res = Kind.INVALID;
+        }
+        return res;
+    }
+
+    /**
+     * Compare pre-release parts: absent pre-release is greater, otherwise
+     * dot-separated identifiers are compared one by one.
+     * @param first First pre-release or null
+     * @param second Second pre-release or null
+     * @return Comparison result
+     */
+    private static int prerelease(final String first, final String second) {
+        final int res;
+        if (first == null || second == null) {
+            res = Boolean.compare(first == null, second == null);
+        } else {
+            final String[] left = GoVersion.DOT.split(first, -1);
+            final String[] right = GoVersion.DOT.split(second, -1);
+            int cmp = 0;
+            for (int idx = 0; idx < Math.min(left.length, right.length) && cmp == 0;
+                idx = idx + 1) {
+                cmp = GoVersion.identifier(left[idx], right[idx]);
+            }
+            if (cmp == 0) {
+                cmp = Integer.compare(left.length, right.length);
+            }
+            res = cmp;
+        }
+        return res;
+    }
+
+    /**
+     * Compare pre-release identifiers: numeric identifiers are lower than
+     * alphanumeric and are compared as numbers.
+     * @param first First identifier
+     * @param second Second identifier
+     * @return Comparison result
+     */
+    private static int identifier(final String first, final String second) {
+        final boolean left = GoVersion.digits(first);
+        final boolean right = GoVersion.digits(second);
+        final int res;
+        if (left && right) {
+            res = GoVersion.numeric(first, second);
+        } else if (left || right) {
+            res = Boolean.compare(right, left);
+        } else {
+            res = first.compareTo(second);
+        }
+        return res;
+    }
+
+    /**
+     * Compare numbers of any length without leading zeros.
+     * @param first First number
+     * @param second Second number
+     * @return Comparison result
+     */
+    private static int numeric(final String first, final String second) {
+        int res = Integer.compare(first.length(), second.length());
+        if (res == 0) {
+            res = first.compareTo(second);
+        }
+        return res;
+    }
+
+    /**
+     * Does the string consist of digits only.
+     * @param str String
+     * @return True if it's a number
+     */
+    private static boolean digits(final String str) {
+        boolean res = !str.isEmpty();
+        for (int idx = 0; idx < str.length() && res; idx = idx + 1) {
+            res = Character.isDigit(str.charAt(idx));
+        }
+        return res;
+    }
+
+    /**
+     * Version kinds in the order of preference for latest version choice.
+     * @since 0.4
+     */
+    private enum Kind {
+        /**
+         * Not a semantic version.
+         */
+        INVALID,
+
+        /**
+         * Pseudo-version.
+         */
+        PSEUDO,
+
+        /**
+         * Pre-release.
+         */
+        PRERELEASE,
+
+        /**
+         * Release.
+         */
+        RELEASE
+    }
+}
@@ -25,24 +25,28 @@ package com.artipie.goproxy;
 
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
-import com.artipie.asto.Remaining;
 import com.artipie.asto.Storage;
-import com.artipie.asto.fs.RxFile;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.rx.RxStorageWrapper;
 import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Single;
-import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
-import org.cactoos.list.Joined;
-import org.cactoos.list.ListOf;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Go front.
@@ -63,25 +67,158 @@ import org.cactoos.list.ListOf;
  *
  * <pre> goproxy.update("example.com/foo/bar", "0.0.1").subscribe();</pre>
  *
- * That's it.
+ * That's it. Many versions, e.g. released together, are published at once with
+ * {@link Goproxy#updateAll(Collection, int)}: versions indexes are updated once per module.
+ *
+ * <p>Concurrent updates of the same module are safe as long as they are
+ * performed via the same {@code Goproxy} instance: versions index updates are
+ * serialized per module, see {@link ModuleUpdates}.</p>
+ *
+ * <p>The versions index {@code <module>/@index} is the source of the versions
+ * list and the latest version index {@code <module>/@latest}, which holds the
+ * info of the version {@code go} would choose as the latest one,
+ * see {@link GoVersion#LATEST}.
+ * {@link UpdateListener} is notified when all the files are saved, e.g. to
+ * invalidate metadata cached by the HTTP layer.</p>
+ *
+ * <p>Each artifact file ({@code .info}, {@code .mod} and {@code .zip}) gets
+ * a checksum file with {@link #CHECKSUM} extension, calculated while the
+ * artifact is written, so it can be served as an entity tag without reading
+ * the artifact. Versions are immutable: when a version is published again,
+ * its {@code .info} is kept, so the publish time served from the versions index
+ * always matches the file and its checksum.</p>
+ *
+ * <p>With {@link ArchiveOptions#withEntryCache()}, compressed archive entries
+ * are cached next to the module, so only the files changed since the previous
+ * version are compressed on update; entries the new archive didn't use are removed.</p>
  *
  * @since 0.1
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  * @checkstyle ReturnCountCheck (500 lines)
  */
+@SuppressWarnings("PMD.TooManyMethods")
 public final class Goproxy {
 
+    /**
+     * Extension of artifact checksum files: SHA-256 of every artifact file
+     * is saved as lower-case hex next to it, e.g. {@code v0.0.1.zip.sha256}.
+     */
+    public static final String CHECKSUM = ".sha256";
+
+    /**
+     * Extension of module archive hash files: Go {@code h1:} hash of the module
+     * archive, as it's written to {@code go.sum}, is saved next to the archive,
+     * e.g. {@code v0.0.1.ziphash}.
+     */
+    public static final String ZIPHASH = ".ziphash";
+
+    /**
+     * Number of files written after module archive on update: archive hash,
+     * {@code go.mod} captured from the archive and version info.
+     */
+    private static final int ARTIFACTS = 3;
+
+    /**
+     * Name of versions list update phase.
+     */
+    private static final String LIST_PHASE = "list";
+
+    /**
+     * Version tag format.
+     */
+    private static final String TAG = "v%s";
+
     /**
      * The storage.
      */
     private final RxStorageWrapper storage;
 
+    /**
+     * Versions list updates.
+     */
+    private final ModuleUpdates updates;
+
+    /**
+     * Max number of artifact files written at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * Module archive options.
+     */
+    private final ArchiveOptions options;
+
+    /**
+     * Module updates listener.
+     */
+    private final UpdateListener listener;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
     /**
      * Ctor.
      * @param stg The storage
      */
     public Goproxy(final Storage stg) {
+        this(stg, Goproxy.ARTIFACTS);
+    }
+
+    /**
+     * Ctor.
+     * @param stg The storage
+     * @param parallelism Max number of artifact files written at the same time,
+     *  1 to write them one by one
+     */
+    public Goproxy(final Storage stg, final int parallelism) {
+        this(stg, parallelism, ArchiveOptions.DEFAULT);
+    }
+
+    /**
+     * Ctor.
+     * @param stg The storage
+     * @param parallelism Max number of artifact files written at the same time,
+     *  1 to write them one by one
+     * @param options Module archive options
+     */
+    public Goproxy(final Storage stg, final int parallelism, final ArchiveOptions options) {
+        this(stg, parallelism, options, UpdateListener.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param stg The storage
+     * @param parallelism Max number of artifact files written at the same time,
+     *  1 to write them one by one
+     * @param options Module archive options
+     * @param listener Listener notified when module update is completed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Goproxy(final Storage stg, final int parallelism, final ArchiveOptions options,
+        final UpdateListener listener) {
+        this(stg, parallelism, options, listener, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param stg The storage
+     * @param parallelism Max number of artifact files written at the same time,
+     *  1 to write them one by one
+     * @param options Module archive options
+     * @param listener Listener notified when module update is completed
+     * @param metrics Metrics: timers of update phases
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Goproxy(final Storage stg, final int parallelism, final ArchiveOptions options,
+        final UpdateListener listener, final Metrics metrics) {
         this.storage = new RxStorageWrapper(stg);
+        this.updates = new ModuleUpdates(this.storage);
+        this.parallelism = parallelism;
+        this.options = options;
+        this.listener = listener;
+        this.metrics = metrics;
     }
 
     /**
@@ -95,6 +232,44 @@ public final class Goproxy {
         return Completable.defer(() -> this.actualUpdate(repo, version));
     }
 
+    /**
+     * Update the meta info by many artifacts at once.
+     * <p>
+     * Artifact files of the versions are written with given concurrency, then
+     * the versions list and the latest version index of every module are updated
+     * once, with all of its versions which artifacts were written; the listener
+     * is notified once per module too. Failure of one version doesn't stop the others,
+     * it's reported in the result.
+     *
+     * @param versions Pairs of the repo name and the version,
+     *  e.g. "example.com/foo/bar" and "0.0.1"
+     * @param concurrency Max number of versions written at the same time
+     * @return Update report
+     */
+    public Single<BatchReport> updateAll(
+        final Collection<? extends Map.Entry<String, String>> versions, final int concurrency) {
+        return Single.defer(
+            () -> {
+                final long start = System.nanoTime();
+                final AtomicLong written = new AtomicLong();
+                return Flowable.fromIterable(versions)
+                    .concatMapEager(
+                        item -> this.written(item.getKey(), item.getValue()).toFlowable(),
+                        concurrency, 1
+                    )
+                    .toList()
+                    .doOnSuccess(items -> written.set(System.nanoTime() - start))
+                    .flatMap(items -> this.indexed(items, concurrency))
+                    .map(
+                        items -> new BatchReport(
+                            items, Duration.ofNanos(written.get()),
+                            Duration.ofNanos(System.nanoTime() - start)
+                        )
+                    );
+            }
+        );
+    }
+
     /**
      * Generate a json file with provided version.
      *
@@ -119,175 +294,247 @@ public final class Goproxy {
      * @param content Content instance to be read
      * @return ByteBuffer contains all data from the content
      */
-    @SuppressWarnings("cast")
     static Single<ByteBuffer> readCompletely(final Content content) {
-        return Flowable.fromPublisher(content)
-            .reduce(
-                ByteBuffer.allocate(0),
-                (left, right) ->
-                    (ByteBuffer) ByteBuffer.allocate(left.remaining() + right.remaining())
-                        .put(left).put(right).flip()
-            );
+        return new Aggregation(content).single();
     }
 
     /**
      * Update the meta info by this artifact.
+     * <p>
+     * Artifact files are written first, see {@link #publish(String, String)};
+     * the versions list is updated only when all of them are saved, so clients
+     * never see a version before its files exist.
      *
      * @param repo The name of the repo just updated, e.g. "example.com/foo/bar"
      * @param version The version of the repo, e.g. "0.0.1"
      * @return Completion or error signal.
-     * @throws IOException if fails.
      */
-    private Completable actualUpdate(final String repo, final String version) throws IOException {
-        final String[] parts = repo.split("/", 2);
-        final String lkey = String.format("%s/@v/list", repo);
-        return Completable.concatArray(
-            this.loadGoModFile(parts)
-                .flatMapCompletable(
-                    content -> this.saveModWithVersion(repo, version, content)
-                ),
-            this.archive(
-                String.format("%s/", parts[1]),
-                String.format("%s@v%s", repo, version)
-            ).flatMapCompletable(
-                zip -> this.storage.save(
-                    new Key.From(String.format("%s/@v/v%s.zip", repo, version)),
-                    new Content.From(new RxFile(zip).flow())
-                ).andThen(Completable.fromAction(() -> Files.delete(zip)))
-            ),
-            generateVersionedJson(version, Instant.now())
-                .flatMapCompletable(
-                    content -> this.storage.save(
-                        new Key.From(String.format("%s/@v/v%s.info", repo, version)),
-                        content
-                    )
-                ),
-            this.storage.exists(
-                new Key.From(lkey)
-            ).flatMap(
-                exists -> {
-                    if (exists) {
-                        return this.storage.value(new Key.From(lkey));
-                    } else {
-                        return Single.just(new Content.From(new byte[0]));
-                    }
-                })
-            .flatMap(
-                content -> updateFileList(version, content)
-            ).flatMapCompletable(
-                content -> this.storage.save(
-                    new Key.From(lkey),
-                    content
+    private Completable actualUpdate(final String repo, final String version) {
+        return this.publish(repo, version)
+            .andThen(
+                this.timed(
+                    Goproxy.LIST_PHASE,
+                    this.updates.add(repo, String.format(Goproxy.TAG, version))
                 )
             )
-        );
+            .doOnComplete(() -> this.listener.updated(repo));
     }
 
     /**
-     * Load mod.go file from the storage.
+     * Write artifact files of the version.
+     * <p>
+     * Sources are read once: {@code go.mod} is captured and checked while the module
+     * archive is written. Other files are written concurrently only when the archive
+     * is saved, so a version which sources are rejected leaves no files, and
+     * {@code .info} is never served for a version without {@code .mod} and {@code .zip}.
      *
-     * @param parts Parts of the repo path
-     * @return Content of the to go.mod file.
+     * @param repo The name of the repo just updated, e.g. "example.com/foo/bar"
+     * @param version The version of the repo, e.g. "0.0.1"
+     * @return Completion or error signal.
      */
-    private Single<Content> loadGoModFile(final String... parts) {
-        return this.storage.value(
-            new Key.From(String.format("%s/go.mod", parts[1]))
+    private Completable publish(final String repo, final String version) {
+        final Optional<EntryCache> cache;
+        if (this.options.cached()) {
+            cache = Optional.of(new EntryCache(this.storage, repo));
+        } else {
+            cache = Optional.empty();
+        }
+        final ModuleArchive archive = new ModuleArchive(
+            this.storage,
+            String.format("%s/", repo.split("/", 2)[1]),
+            String.format("%s@v%s", repo, version),
+            this.options,
+            new GoMod(repo),
+            cache
+        );
+        return this.timed(
+            "zip",
+            this.saveDigested(
+                new Key.From(String.format("%s/@v/v%s.zip", repo, version)),
+                new Content.From(archive.flow())
+            )
+        ).andThen(
+            cache.map(EntryCache::prune).orElse(Completable.complete())
+        ).andThen(
+            Completable.merge(
+                Flowable.fromArray(
+                    Completable.defer(
+                        () -> this.storage.save(
+                            new Key.From(
+                                String.format("%s/@v/v%s%s", repo, version, Goproxy.ZIPHASH)
+                            ),
+                            new Content.From(archive.hash().getBytes(StandardCharsets.US_ASCII))
+                        )
+                    ),
+                    this.timed(
+                        "mod",
+                        Completable.defer(
+                            () -> this.saveModWithVersion(repo, version, archive.mod())
+                        )
+                    ),
+                    this.timed("info", this.saveInfo(repo, version))
+                ),
+                this.parallelism
+            )
         );
     }
 
     /**
-     * Save given mod file to the storage.
+     * Save metadata of the version unless it's published already: versions are
+     * immutable, so republished version keeps its publish time, and its {@code .info},
+     * checksum and index entry stay consistent.
      *
      * @param repo The name of the repo just updated, e.g. "example.com/foo/bar"
      * @param version The version of the repo, e.g. "0.0.1"
-     * @param content The content of to the mod file
      * @return Completion or error signal.
      */
-    private Completable saveModWithVersion(final String repo, final String version,
-        final Content content) {
-        return this.storage.save(
-            new Key.From(String.format("%s/@v/v%s.mod", repo, version)),
-            content
+    private Completable saveInfo(final String repo, final String version) {
+        final Key key = new Key.From(String.format("%s/@v/v%s.info", repo, version));
+        return this.storage.exists(key).flatMapCompletable(
+            exists -> {
+                final Completable res;
+                if (exists) {
+                    res = Completable.complete();
+                } else {
+                    res = generateVersionedJson(version, Instant.now()).flatMapCompletable(
+                        content -> this.saveDigested(key, content)
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Record the time of update phase to {@code goproxy.update.<phase>} timer.
+     * <p>
+     * Module archive is streamed to the storage as it's built, so building and upload
+     * are one {@code zip} phase.
+     * @param phase Phase name
+     * @param operation Phase operation
+     * @return Completion or error signal.
+     */
+    private Completable timed(final String phase, final Completable operation) {
+        return Completable.defer(
+            () -> {
+                final long start = System.nanoTime();
+                return operation.doOnEvent(
+                    err -> this.metrics.record(
+                        String.format("goproxy.update.%s", phase), System.nanoTime() - start
+                    )
+                );
+            }
         );
     }
 
     /**
-     * Update files list with the new version.
+     * Write artifact files of the version, reporting the result.
      *
+     * @param repo The name of the repo just updated, e.g. "example.com/foo/bar"
      * @param version The version of the repo, e.g. "0.0.1"
-     * @param content Initial content of files list
-     * @return Updated content of files list.
+     * @return Version result
      */
-    private static Single<Content> updateFileList(final String version, final Content content) {
-        return readCompletely(content)
-            .map(
-                buf -> new Remaining(buf).bytes()
-            ).map(
-                buf -> appendLineToBuffer(buf, String.format("v%s", version))
-            ).map(Content.From::new);
+    private Single<BatchReport.Item> written(final String repo, final String version) {
+        return Single.defer(
+            () -> {
+                final long start = System.nanoTime();
+                return this.publish(repo, version)
+                    .toSingleDefault(Optional.<Throwable>empty())
+                    .onErrorReturn(Optional::of)
+                    .map(
+                        err -> new BatchReport.Item(
+                            repo, version, err, Duration.ofNanos(System.nanoTime() - start)
+                        )
+                    );
+            }
+        );
     }
 
     /**
-     * Decode byte array as multi-line text and append the new line to the end.
-     * @param buffer Initial content as a byte array
-     * @param line Line to be appended
-     * @return Buffer with the new line appended
-     * @throws IOException if error occurred when transforming data.
+     * Update versions indexes, lists and latest version indexes once per module,
+     * with the versions which artifacts are written.
+     *
+     * @param items Version results
+     * @param concurrency Max number of modules updated at the same time
+     * @return Version results including index errors
      */
-    private static byte[] appendLineToBuffer(final byte[] buffer,
-        final String line) throws IOException {
-        return new org.cactoos.text.Joined(
-        "\n",
-        new Joined<String>(
-            new ListOf<>(
-                new String(buffer).split("\n")
-            ),
-            new ListOf<>(line)
-        )
-        ).asString().getBytes();
+    private Single<List<BatchReport.Item>> indexed(final List<BatchReport.Item> items,
+        final int concurrency) {
+        final Map<String, List<String>> modules = new LinkedHashMap<>();
+        for (final BatchReport.Item item : items) {
+            if (!item.error().isPresent()) {
+                modules.computeIfAbsent(item.module(), key -> new ArrayList<>(1))
+                    .add(String.format(Goproxy.TAG, item.version()));
+            }
+        }
+        return Flowable.fromIterable(modules.entrySet()).flatMapSingle(
+            module -> this.timed(
+                Goproxy.LIST_PHASE, this.updates.add(module.getKey(), module.getValue())
+            ).doOnComplete(() -> this.listener.updated(module.getKey()))
+                .toSingleDefault(Optional.<Throwable>empty())
+                .onErrorReturn(Optional::of)
+                .map(err -> new AbstractMap.SimpleImmutableEntry<>(module.getKey(), err)),
+            false, concurrency
+        ).toMap(Map.Entry::getKey, Map.Entry::getValue).map(
+            errors -> {
+                final List<BatchReport.Item> res = new ArrayList<>(items.size());
+                for (final BatchReport.Item item : items) {
+                    res.add(
+                        errors.getOrDefault(item.module(), Optional.empty())
+                            .filter(err -> !item.error().isPresent())
+                            .map(item::failed)
+                            .orElse(item)
+                    );
+                }
+                return res;
+            }
+        );
     }
 
     /**
-     * Make ZIP archive.
-     * @param prefix The prefix
-     * @param target The path in the ZIP archive to place files to
-     * @return Path to ZIP archive
-     * @throws IOException if an error occurred when temporary ZIP file created
+     * Save given mod file to the storage.
+     *
+     * @param repo The name of the repo just updated, e.g. "example.com/foo/bar"
+     * @param version The version of the repo, e.g. "0.0.1"
+     * @param content The content of to the mod file
+     * @return Completion or error signal.
      */
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private Single<Path> archive(final String prefix, final String target) throws IOException {
-        final Path zip = Files.createTempFile("", ".zip");
-        return this.storage.list(new Key.From(prefix))
-            .flatMapCompletable(
-                keys -> {
-                    final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip));
-                    return Flowable.fromIterable(keys)
-                        .flatMapCompletable(
-                            key -> {
-                                final String path = String.format(
-                                    "%s/%s",
-                                    target,
-                                    key.string().substring(prefix.length())
-                                );
-                                final ZipEntry entry = new ZipEntry(path);
-                                out.putNextEntry(entry);
-                                return this.storage.value(key)
-                                    .flatMapPublisher(
-                                        content -> content
-                                    ).flatMapCompletable(
-                                        buffer -> {
-                                            final byte[] content = new byte[buffer.remaining()];
-                                            buffer.get(content);
-                                            out.write(content);
-                                            return Completable.complete();
-                                        }
-                                    ).doOnTerminate(out::closeEntry);
-                            }, false, 1
-                        ).doOnTerminate(out::close);
-                }
-            ).andThen(
-                Single.just(zip)
-            );
+    private Completable saveModWithVersion(final String repo, final String version,
+        final Content content) {
+        return this.saveDigested(
+            new Key.From(String.format("%s/@v/v%s.mod", repo, version)),
+            content
+        );
+    }
+
+    /**
+     * Save artifact file along with its checksum.
+     * <p>
+     * The checksum is calculated as the content is written and saved
+     * after the artifact, so it never refers to a missing file.
+     * @param key Artifact key
+     * @param content Artifact content
+     * @return Completion or error signal.
+     */
+    private Completable saveDigested(final Key key, final Content content) {
+        final MessageDigest digest = Digests.SHA256.get();
+        return this.storage.save(
+            key,
+            new Content.From(
+                content.size(),
+                Flowable.fromPublisher(content).doOnNext(buf -> digest.update(buf.duplicate()))
+            )
+        ).andThen(
+            Completable.defer(
+                () -> this.storage.save(
+                    new Key.From(String.format("%s%s", key.string(), Goproxy.CHECKSUM)),
+                    new Content.From(
+                        String.format("%064x", new BigInteger(1, digest.digest()))
+                            .getBytes(StandardCharsets.US_ASCII)
+                    )
+                )
+            )
+        );
     }
 
 }
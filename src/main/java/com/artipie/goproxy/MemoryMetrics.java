@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics kept in memory.
+ * <p>
+ * Timers are histograms with power of two buckets: quantiles are
+ * approximated by the upper bound of the bucket, i.e. up to two times,
+ * but recording takes constant time and memory.
+ * @since 0.4
+ */
+public final class MemoryMetrics implements Metrics {
+
+    /**
+     * Counters by name.
+     */
+    private final ConcurrentMap<String, LongAdder> counters;
+
+    /**
+     * Timers by name.
+     */
+    private final ConcurrentMap<String, Histogram> timers;
+
+    /**
+     * Ctor.
+     */
+    public MemoryMetrics() {
+        this.counters = new ConcurrentHashMap<>();
+        this.timers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void add(final String counter, final long amount) {
+        this.counters.computeIfAbsent(counter, name -> new LongAdder()).add(amount);
+    }
+
+    @Override
+    public void record(final String timer, final long nanos) {
+        this.timers.computeIfAbsent(timer, name -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Counter value.
+     * @param name Counter name
+     * @return Value, zero if nothing was counted
+     */
+    public long counter(final String name) {
+        final LongAdder adder = this.counters.get(name);
+        final long res;
+        if (adder == null) {
+            res = 0;
+        } else {
+            res = adder.sum();
+        }
+        return res;
+    }
+
+    /**
+     * Timer histogram.
+     * @param name Timer name
+     * @return Histogram, empty if nothing was recorded
+     */
+    public Histogram timer(final String name) {
+        return this.timers.getOrDefault(name, new Histogram());
+    }
+
+    /**
+     * Histogram of recorded times.
+     * @since 0.4
+     */
+    public static final class Histogram {
+
+        /**
+         * Number of buckets: bucket N holds times shorter than 2^N nanoseconds.
+         */
+        private static final int BUCKETS = 64;
+
+        /**
+         * Bucket counts.
+         */
+        private final AtomicLongArray buckets;
+
+        /**
+         * Sum of recorded times.
+         */
+        private final LongAdder sum;
+
+        /**
+         * Max recorded time.
+         */
+        private final LongAccumulator longest;
+
+        /**
+         * Ctor.
+         */
+        Histogram() {
+            this.buckets = new AtomicLongArray(Histogram.BUCKETS);
+            this.sum = new LongAdder();
+            this.longest = new LongAccumulator(Math::max, 0);
+        }
+
+        /**
+         * Number of recorded times.
+         * @return Count
+         */
+        public long count() {
+            long res = 0;
+            for (int idx = 0; idx < Histogram.BUCKETS; idx += 1) {
+                res += this.buckets.get(idx);
+            }
+            return res;
+        }
+
+        /**
+         * Sum of recorded times.
+         * @return Nanoseconds
+         */
+        public long total() {
+            return this.sum.sum();
+        }
+
+        /**
+         * Max recorded time.
+         * @return Nanoseconds
+         */
+        public long max() {
+            return this.longest.get();
+        }
+
+        /**
+         * Approximate quantile of recorded times.
+         * @param quantile Quantile from 0 to 1, e.g. 0.99
+         * @return Nanoseconds, upper bound of the bucket the quantile falls into
+         */
+        public long quantile(final double quantile) {
+            final long rank = (long) Math.ceil(quantile * this.count());
+            long seen = 0;
+            int idx = 0;
+            while (idx < Histogram.BUCKETS - 1 && (seen == 0 || seen < rank)) {
+                seen += this.buckets.get(idx);
+                idx += 1;
+            }
+            return Math.min((1L << idx - 1) - 1, this.max());
+        }
+
+        /**
+         * Record time.
+         * @param nanos Nanoseconds
+         */
+        void record(final long nanos) {
+            final long time = Math.max(nanos, 0);
+            this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(time));
+            this.sum.add(time);
+            this.longest.accumulate(time);
+        }
+    }
+}
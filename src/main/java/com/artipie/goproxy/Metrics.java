@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+/**
+ * Metrics of the repository: counters and timers identified by name.
+ * <p>
+ * Implementations are called on request and update hot paths, so they should
+ * be cheap and never block; {@link MemoryMetrics} is a simple registry, other
+ * implementations can pass measurements to a monitoring system.
+ * @since 0.4
+ */
+public interface Metrics {
+
+    /**
+     * Metrics which are not collected.
+     */
+    Metrics NONE = new Metrics() {
+        @Override
+        public void add(final String counter, final long amount) {
+            // nothing to do
+        }
+
+        @Override
+        public void record(final String timer, final long nanos) {
+            // nothing to do
+        }
+    };
+
+    /**
+     * Increase counter.
+     * @param counter Counter name, e.g. "http.requests.zip"
+     * @param amount Amount to add
+     */
+    void add(String counter, long amount);
+
+    /**
+     * Record time.
+     * @param timer Timer name, e.g. "http.latency.zip"
+     * @param nanos Time in nanoseconds
+     */
+    void record(String timer, long nanos);
+}
@@ -0,0 +1,784 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.rx.RxStorage;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * ZIP archive of Go module sources, streamed directly from the storage.
+ * <p>
+ * Entries are written one by one sorted by the file name: every
+ * source chunk is compressed as soon as it is requested downstream and the
+ * compressed bytes are emitted right away, so no more than one chunk of
+ * compressed data is kept in memory and nothing touches the local file system.
+ * <p>
+ * If prefetch is enabled in {@link ArchiveOptions}, next source files are read
+ * from the storage concurrently while current entry is written, entries order
+ * stays the same. Files configured to be stored are read completely to
+ * calculate checksum before writing. Large files configured to be compressed
+ * in parallel are split into blocks, which are compressed on computation threads
+ * with the tail of previous block as a dictionary and written in order.
+ * <p>
+ * Go {@code h1:} hash of the archive is calculated from the entries
+ * as they are read, see {@link #hash()}. Root {@code go.mod} of the module is
+ * captured as it's written, see {@link #mod()}: the archive fails if it doesn't
+ * declare the expected module.
+ * <p>
+ * If entry cache is given, compressed entries are copied from the cache for
+ * files which were compressed before, e.g. for previous module version, and
+ * cached for the others, see {@link EntryCache}.
+ * @since 0.4
+ */
+final class ModuleArchive {
+
+    /**
+     * Block size for parallel compression.
+     */
+    private static final int BLOCK = 128 * 1024;
+
+    /**
+     * Deflate dictionary size.
+     */
+    private static final int DICTIONARY = 32 * 1024;
+
+    /**
+     * Compression output buffer size.
+     */
+    private static final int BUFFER = 8 * 1024;
+
+    /**
+     * The storage.
+     */
+    private final RxStorage storage;
+
+    /**
+     * Sources prefix in the storage, e.g. "foo/bar/".
+     */
+    private final String prefix;
+
+    /**
+     * The path in the ZIP archive to place files to, e.g. "example.com/foo/bar@v0.0.1".
+     */
+    private final String target;
+
+    /**
+     * Archive options.
+     */
+    private final ArchiveOptions options;
+
+    /**
+     * Hash of the written entries.
+     */
+    private final DirHash sums;
+
+    /**
+     * Module go.mod file.
+     */
+    private final GoMod gomod;
+
+    /**
+     * Compressed entries cache.
+     */
+    private final Optional<EntryCache> cache;
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param prefix Sources prefix in the storage
+     * @param target The path in the ZIP archive to place files to
+     */
+    ModuleArchive(final RxStorage storage, final String prefix, final String target) {
+        this(storage, prefix, target, ArchiveOptions.DEFAULT);
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param prefix Sources prefix in the storage
+     * @param target The path in the ZIP archive to place files to
+     * @param options Archive options
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ModuleArchive(final RxStorage storage, final String prefix, final String target,
+        final ArchiveOptions options) {
+        this(storage, prefix, target, options, new GoMod());
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param prefix Sources prefix in the storage
+     * @param target The path in the ZIP archive to place files to
+     * @param options Archive options
+     * @param gomod Module go.mod file
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ModuleArchive(final RxStorage storage, final String prefix, final String target,
+        final ArchiveOptions options, final GoMod gomod) {
+        this(storage, prefix, target, options, gomod, Optional.empty());
+    }
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param prefix Sources prefix in the storage
+     * @param target The path in the ZIP archive to place files to
+     * @param options Archive options
+     * @param gomod Module go.mod file
+     * @param cache Compressed entries cache
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ModuleArchive(final RxStorage storage, final String prefix, final String target,
+        final ArchiveOptions options, final GoMod gomod, final Optional<EntryCache> cache) {
+        this.storage = storage;
+        this.prefix = prefix;
+        this.target = target;
+        this.options = options;
+        this.sums = new DirHash();
+        this.gomod = gomod;
+        this.cache = cache;
+    }
+
+    /**
+     * ZIP archive bytes.
+     * @return Publisher of archive bytes
+     */
+    public Flowable<ByteBuffer> flow() {
+        return this.storage.list(new Key.From(this.prefix))
+            .flatMapPublisher(
+                keys -> Flowable.using(
+                    () -> new Sink(this.options, this.cache),
+                    sink -> this.entries(sink, keys).concatWith(
+                        Flowable.defer(
+                            () -> {
+                                this.gomod.require(this.modkey());
+                                return sink.finish();
+                            }
+                        )
+                    ),
+                    Sink::close
+                )
+            );
+    }
+
+    /**
+     * Go {@code h1:} hash of the archive, calculated from the entries
+     * as they are written, so it's available when {@link #flow()} is completed.
+     * @return Hash value
+     */
+    public String hash() {
+        return this.sums.value();
+    }
+
+    /**
+     * Root go.mod of the module, captured as the archive is written,
+     * so it's available when {@link #flow()} is completed.
+     * @return Content of go.mod
+     */
+    public Content mod() {
+        return this.gomod.content(this.modkey());
+    }
+
+    /**
+     * Writes all the entries to the archive.
+     * @param sink Archive sink
+     * @param keys Source keys
+     * @return Publisher of archive bytes
+     */
+    private Flowable<ByteBuffer> entries(final Sink sink, final Collection<Key> keys) {
+        final Flowable<Key> sorted = Flowable.fromIterable(keys)
+            .sorted(Comparator.comparing(Key::string));
+        final int window = this.options.prefetch();
+        final Flowable<ByteBuffer> res;
+        if (window > 1) {
+            res = sorted.concatMapEager(
+                key -> this.storage.value(key)
+                    .flatMap(content -> new Aggregation(content).single())
+                    .map(data -> new AbstractMap.SimpleImmutableEntry<>(key, data))
+                    .toFlowable(),
+                window, 1
+            ).concatMap(
+                entry -> this.write(
+                    sink, entry.getKey(),
+                    new Content.From(
+                        entry.getValue().remaining(), Flowable.just(entry.getValue())
+                    )
+                )
+            );
+        } else {
+            res = sorted.concatMap(
+                key -> this.storage.value(key)
+                    .flatMapPublisher(content -> this.write(sink, key, content))
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Write an entry adding it to the archive hash.
+     * @param sink Archive sink
+     * @param key Source key
+     * @param data Entry data
+     * @return Publisher of archive bytes
+     */
+    private Flowable<ByteBuffer> write(final Sink sink, final Key key, final Content data) {
+        final String name = this.name(key);
+        final Content entry;
+        if (key.string().equals(this.modkey().string())) {
+            entry = this.gomod.tee(data);
+        } else {
+            entry = data;
+        }
+        return sink.entry(name, this.digested(name, entry));
+    }
+
+    /**
+     * Entry data which adds its digest to the archive hash when it's read.
+     * @param name Entry name
+     * @param data Entry data
+     * @return Entry data
+     */
+    private Content digested(final String name, final Content data) {
+        final MessageDigest digest = Digests.SHA256.get();
+        return new Content.From(
+            data.size(),
+            Flowable.fromPublisher(data)
+                .doOnNext(buf -> digest.update(buf.duplicate()))
+                .doOnComplete(() -> this.sums.with(name, digest.digest()))
+        );
+    }
+
+    /**
+     * Root go.mod key.
+     * @return Key of go.mod in the storage
+     */
+    private Key modkey() {
+        return new Key.From(String.format("%s%s", this.prefix, GoMod.NAME));
+    }
+
+    /**
+     * Entry name in the archive.
+     * @param key Source key
+     * @return Entry name
+     */
+    private String name(final Key key) {
+        return String.format("%s/%s", this.target, key.string().substring(this.prefix.length()));
+    }
+
+    /**
+     * ZIP output.
+     * @since 0.4
+     * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+     */
+    @SuppressWarnings("PMD.TooManyMethods")
+    private static final class Sink {
+
+        /**
+         * ZIP writer.
+         */
+        private final ZipWriter writer;
+
+        /**
+         * Deflater for sequentially compressed entries.
+         */
+        private final Deflater deflater;
+
+        /**
+         * Archive options.
+         */
+        private final ArchiveOptions options;
+
+        /**
+         * Compressed entries cache.
+         */
+        private final Optional<EntryCache> cache;
+
+        /**
+         * Ctor.
+         * @param options Archive options
+         * @param cache Compressed entries cache
+         */
+        Sink(final ArchiveOptions options, final Optional<EntryCache> cache) {
+            this.writer = new ZipWriter();
+            this.deflater = new Deflater(options.level(), true);
+            this.options = options;
+            this.cache = cache;
+        }
+
+        /**
+         * Write an entry.
+         * @param name Entry name
+         * @param data Entry data
+         * @return Publisher of archive bytes
+         */
+        Flowable<ByteBuffer> entry(final String name, final Content data) {
+            final Flowable<ByteBuffer> res;
+            if (this.options.stored(name)) {
+                res = this.stored(name, data);
+            } else if (this.cache.isPresent()) {
+                res = this.cached(name, data, this.cache.get());
+            } else {
+                res = Flowable.defer(
+                    () -> {
+                        final Checksum sum = new Checksum();
+                        return this.deflated(
+                            name, this.compressed(data, this.options.parallel(data.size()), sum),
+                            sum::crc, sum::size
+                        );
+                    }
+                );
+            }
+            return res;
+        }
+
+        /**
+         * Finish the archive writing central directory.
+         * @return Publisher of remaining bytes
+         */
+        Flowable<ByteBuffer> finish() {
+            return Flowable.defer(() -> Flowable.just(this.writer.finish()));
+        }
+
+        /**
+         * Release resources.
+         */
+        void close() {
+            this.deflater.end();
+        }
+
+        /**
+         * Write stored entry.
+         * @param name Entry name
+         * @param data Entry data
+         * @return Publisher of archive bytes
+         */
+        private Flowable<ByteBuffer> stored(final String name, final Content data) {
+            return new Aggregation(data).single().flatMapPublisher(
+                buffer -> {
+                    final byte[] bytes = new Remaining(buffer).bytes();
+                    final CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    return Flowable.just(
+                        this.writer.stored(
+                            name, this.options.time(), crc.getValue(), bytes.length
+                        ),
+                        this.writer.data(bytes),
+                        this.writer.close(crc.getValue(), bytes.length)
+                    ).filter(ByteBuffer::hasRemaining);
+                }
+            );
+        }
+
+        /**
+         * Write entry copying compressed data from the cache, or compress it
+         * and put to the cache.
+         * @param name Entry name
+         * @param data Entry data
+         * @param entries Compressed entries cache
+         * @return Publisher of archive bytes
+         */
+        private Flowable<ByteBuffer> cached(final String name, final Content data,
+            final EntryCache entries) {
+            return new Aggregation(data).single().flatMapPublisher(
+                buffer -> {
+                    final byte[] bytes = new Remaining(buffer).bytes();
+                    final boolean parallel = this.options.parallel(
+                        Optional.of((long) bytes.length)
+                    );
+                    final Key key = entries.key(bytes, this.mode(parallel));
+                    return entries.load(key).map(
+                        hit -> this.deflated(
+                            name, Flowable.just(hit.data()), hit::crc, hit::size
+                        )
+                    ).switchIfEmpty(
+                        Single.fromCallable(
+                            () -> {
+                                final Checksum sum = new Checksum();
+                                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                                return this.deflated(
+                                    name,
+                                    this.compressed(
+                                        new Content.From(bytes), parallel, sum
+                                    ).doOnNext(out::write).concatWith(
+                                        Completable.defer(
+                                            () -> entries.save(
+                                                key,
+                                                new EntryCache.Deflated(
+                                                    sum.crc(), sum.size(), out.toByteArray()
+                                                )
+                                            )
+                                        )
+                                    ),
+                                    sum::crc, sum::size
+                                );
+                            }
+                        )
+                    ).flatMapPublisher(entry -> entry);
+                }
+            );
+        }
+
+        /**
+         * Write deflated entry.
+         * @param name Entry name
+         * @param chunks Compressed data
+         * @param crc CRC-32 of uncompressed data, known when the data is written
+         * @param size Uncompressed data size, known when the data is written
+         * @return Publisher of archive bytes
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        private Flowable<ByteBuffer> deflated(final String name, final Flowable<byte[]> chunks,
+            final LongSupplier crc, final LongSupplier size) {
+            return Flowable.defer(
+                () -> Flowable.just(
+                    this.writer.entry(name, ZipWriter.DEFLATE, this.options.time())
+                )
+            ).concatWith(chunks.map(this.writer::data)).concatWith(
+                Flowable.defer(
+                    () -> Flowable.just(this.writer.close(crc.getAsLong(), size.getAsLong()))
+                )
+            );
+        }
+
+        /**
+         * Compress entry data.
+         * @param data Entry data
+         * @param parallel Compress on several threads
+         * @param sum Checksum of the data
+         * @return Compressed data
+         */
+        private Flowable<byte[]> compressed(final Content data, final boolean parallel,
+            final Checksum sum) {
+            final Flowable<byte[]> res;
+            if (parallel) {
+                res = this.parallel(data, sum);
+            } else {
+                res = this.sequential(data, sum);
+            }
+            return res.filter(bytes -> bytes.length > 0);
+        }
+
+        /**
+         * Compress data sequentially.
+         * @param data Entry data
+         * @param sum Checksum of the data
+         * @return Compressed data
+         */
+        private Flowable<byte[]> sequential(final Content data, final Checksum sum) {
+            return Flowable.defer(
+                () -> {
+                    this.deflater.reset();
+                    return Flowable.fromPublisher(data).map(
+                        buffer -> {
+                            this.deflater.setInput(sum.update(buffer));
+                            return Sink.deflate(this.deflater, Deflater.NO_FLUSH);
+                        }
+                    ).concatWith(
+                        Flowable.defer(() -> Flowable.just(Sink.finish(this.deflater)))
+                    );
+                }
+            );
+        }
+
+        /**
+         * Compress data in parallel.
+         * @param data Entry data
+         * @param sum Checksum of the data
+         * @return Compressed data
+         */
+        private Flowable<byte[]> parallel(final Content data, final Checksum sum) {
+            final int level = this.options.level();
+            return Flowable.defer(
+                () -> {
+                    final Blocks blocks = new Blocks();
+                    return Flowable.fromPublisher(data)
+                        .concatMapIterable(buffer -> blocks.add(sum.update(buffer)))
+                        .concatWith(Flowable.defer(() -> Flowable.fromIterable(blocks.rest())))
+                        .concatMapEager(
+                            block -> Single.fromCallable(() -> block.deflate(level))
+                                .subscribeOn(Schedulers.computation())
+                                .toFlowable(),
+                            this.options.blocks(), 1
+                        ).concatWith(
+                            Flowable.defer(
+                                () -> {
+                                    final Deflater last = new Deflater(level, true);
+                                    try {
+                                        return Flowable.just(Sink.finish(last));
+                                    } finally {
+                                        last.end();
+                                    }
+                                }
+                            )
+                        );
+                }
+            );
+        }
+
+        /**
+         * Compression mode of cached entries: level and parallel flag,
+         * parallel compression produces other data.
+         * @param parallel Compress on several threads
+         * @return Mode
+         */
+        private String mode(final boolean parallel) {
+            final String res;
+            if (parallel) {
+                res = String.format("%d.p", this.options.level());
+            } else {
+                res = String.valueOf(this.options.level());
+            }
+            return res;
+        }
+
+        /**
+         * Take compressed bytes deflater can produce from the input
+         * consumed so far.
+         * @param deflater Deflater
+         * @param flush Flush mode
+         * @return Compressed bytes
+         */
+        private static byte[] deflate(final Deflater deflater, final int flush) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[ModuleArchive.BUFFER];
+            int len;
+            do {
+                len = deflater.deflate(buf, 0, buf.length, flush);
+                out.write(buf, 0, len);
+            } while (len == buf.length || !deflater.needsInput());
+            return out.toByteArray();
+        }
+
+        /**
+         * Finish deflate stream.
+         * @param deflater Deflater
+         * @return Remaining compressed bytes
+         */
+        private static byte[] finish(final Deflater deflater) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[ModuleArchive.BUFFER];
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buf, 0, deflater.deflate(buf));
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * CRC-32 and size of the entry data.
+     * @since 0.4
+     */
+    private static final class Checksum {
+
+        /**
+         * CRC-32.
+         */
+        private final CRC32 digest;
+
+        /**
+         * Data size.
+         */
+        private long total;
+
+        /**
+         * Ctor.
+         */
+        Checksum() {
+            this.digest = new CRC32();
+        }
+
+        /**
+         * Update checksum with the data.
+         * @param buffer Data
+         * @return Data bytes
+         */
+        byte[] update(final ByteBuffer buffer) {
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            this.digest.update(bytes);
+            this.total += bytes.length;
+            return bytes;
+        }
+
+        /**
+         * CRC-32 value.
+         * @return CRC-32
+         */
+        long crc() {
+            return this.digest.getValue();
+        }
+
+        /**
+         * Data size.
+         * @return Size
+         */
+        long size() {
+            return this.total;
+        }
+    }
+
+    /**
+     * Entry data split into blocks for parallel compression.
+     * @since 0.4
+     */
+    private static final class Blocks {
+
+        /**
+         * Current block.
+         */
+        private final byte[] current;
+
+        /**
+         * Bytes in the current block.
+         */
+        private int filled;
+
+        /**
+         * Tail of previous block.
+         */
+        private byte[] dictionary;
+
+        /**
+         * Ctor.
+         */
+        Blocks() {
+            this.current = new byte[ModuleArchive.BLOCK];
+            this.dictionary = new byte[0];
+        }
+
+        /**
+         * Add data.
+         * @param data Data
+         * @return Blocks filled up with the data
+         */
+        List<Block> add(final byte[] data) {
+            final List<Block> res = new ArrayList<>(1);
+            int pos = 0;
+            while (pos < data.length) {
+                final int len = Math.min(data.length - pos, this.current.length - this.filled);
+                System.arraycopy(data, pos, this.current, this.filled, len);
+                this.filled += len;
+                pos += len;
+                if (this.filled == this.current.length) {
+                    res.add(this.block());
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Last block.
+         * @return Last partially filled block if any
+         */
+        List<Block> rest() {
+            final List<Block> res = new ArrayList<>(1);
+            if (this.filled > 0) {
+                res.add(this.block());
+            }
+            return res;
+        }
+
+        /**
+         * Take current block.
+         * @return Block
+         */
+        private Block block() {
+            final byte[] data = Arrays.copyOf(this.current, this.filled);
+            final Block res = new Block(data, this.dictionary);
+            this.dictionary = Arrays.copyOfRange(
+                data, Math.max(0, data.length - ModuleArchive.DICTIONARY), data.length
+            );
+            this.filled = 0;
+            return res;
+        }
+    }
+
+    /**
+     * Block of entry data.
+     * @since 0.4
+     */
+    private static final class Block {
+
+        /**
+         * Block data.
+         */
+        private final byte[] data;
+
+        /**
+         * Tail of previous block.
+         */
+        private final byte[] dictionary;
+
+        /**
+         * Ctor.
+         * @param data Block data
+         * @param dictionary Tail of previous block
+         */
+        Block(final byte[] data, final byte[] dictionary) {
+            this.data = Arrays.copyOf(data, data.length);
+            this.dictionary = Arrays.copyOf(dictionary, dictionary.length);
+        }
+
+        /**
+         * Compress block to the part of deflate stream: compressed data
+         * ends on byte boundary and is not final.
+         * @param level Compression level
+         * @return Compressed bytes
+         */
+        byte[] deflate(final int level) {
+            final Deflater deflater = new Deflater(level, true);
+            try {
+                if (this.dictionary.length > 0) {
+                    deflater.setDictionary(this.dictionary);
+                }
+                deflater.setInput(this.data);
+                return Sink.deflate(deflater, Deflater.SYNC_FLUSH);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+}
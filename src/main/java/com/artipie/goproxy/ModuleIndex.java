@@ -0,0 +1,359 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Binary versions index of the module, {@code <module>/@index} file, written by
+ * {@link Goproxy} along with the versions list: versions list, latest version and
+ * {@code .info} metadata of any version are rendered from this single file.
+ * <p>
+ * The index is read right from its buffer without decoding all the entries.
+ * It starts with a header: magic number, format version, number of entries and position
+ * of the latest version entry ({@code -1} if there are no entries). The header is followed
+ * by the table of entry offsets and the entries sorted by semantic version precedence.
+ * Every entry is publish time in epoch seconds ({@link Long#MIN_VALUE} if it's unknown)
+ * and length-prefixed UTF-8 version text. Entries with known time are rendered as the
+ * same {@code .info} JSON as {@link Goproxy} writes, so the version is found by binary
+ * search and no other file is read.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ModuleIndex {
+
+    /**
+     * Index file name.
+     */
+    public static final String FILE = "@index";
+
+    /**
+     * Magic number, "GOIX".
+     */
+    private static final int MAGIC = 0x474f4958;
+
+    /**
+     * Index format version.
+     */
+    private static final byte FORMAT = 1;
+
+    /**
+     * Header size: magic, format, entries number and latest entry.
+     */
+    private static final int HEADER = 13;
+
+    /**
+     * Position of entries number.
+     */
+    private static final int COUNT = 5;
+
+    /**
+     * Position of latest entry number.
+     */
+    private static final int BEST = 9;
+
+    /**
+     * Size of entry time and version length.
+     */
+    private static final int ENTRY = 10;
+
+    /**
+     * Order of entries: total order consistent with semantic version precedence.
+     */
+    private static final Comparator<GoVersion> ORDER = Comparator.<GoVersion>naturalOrder()
+        .thenComparing(GoVersion::toString);
+
+    /**
+     * Index buffer.
+     */
+    private final ByteBuffer buf;
+
+    /**
+     * Ctor.
+     * @param buf Index buffer
+     */
+    public ModuleIndex(final ByteBuffer buf) {
+        this.buf = buf.slice();
+    }
+
+    /**
+     * Number of indexed versions.
+     * @return Versions number
+     */
+    public int size() {
+        this.check();
+        return this.buf.getInt(ModuleIndex.COUNT);
+    }
+
+    /**
+     * Versions list, {@code @v/list} content: one version per line
+     * in semantic version order.
+     * @return Versions list
+     */
+    public String list() {
+        final int size = this.size();
+        final StringBuilder res = new StringBuilder(size * ModuleIndex.ENTRY);
+        for (int idx = 0; idx < size; idx += 1) {
+            res.append(this.version(idx)).append('\n');
+        }
+        return res.toString();
+    }
+
+    /**
+     * Metadata of the version, {@code .info} file content.
+     * @param version Version, e.g. "v1.0.0"
+     * @return Metadata if version is indexed with its publish time
+     */
+    public Optional<String> info(final String version) {
+        final GoVersion target = new GoVersion(version);
+        int low = 0;
+        int high = this.size() - 1;
+        Optional<String> res = Optional.empty();
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = ModuleIndex.ORDER.compare(new GoVersion(this.version(mid)), target);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                res = this.info(mid);
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Metadata of the latest version chosen the way {@code go} does it,
+     * see {@link GoVersion#LATEST}.
+     * @return Metadata if there are versions and latest one has its publish time
+     */
+    public Optional<String> latest() {
+        this.check();
+        final int latest = this.buf.getInt(ModuleIndex.BEST);
+        final Optional<String> res;
+        if (latest < 0) {
+            res = Optional.empty();
+        } else {
+            res = this.info(latest);
+        }
+        return res;
+    }
+
+    /**
+     * Indexed versions.
+     * @return Versions with publish times
+     */
+    List<ModuleIndex.Entry> entries() {
+        final int size = this.size();
+        final List<ModuleIndex.Entry> res = new ArrayList<>(size);
+        for (int idx = 0; idx < size; idx += 1) {
+            res.add(new ModuleIndex.Entry(this.version(idx), this.buf.getLong(this.offset(idx))));
+        }
+        return res;
+    }
+
+    /**
+     * Build index of the versions.
+     * @param entries Versions with publish times, distinct
+     * @return Index
+     */
+    static ModuleIndex from(final Collection<ModuleIndex.Entry> entries) {
+        final List<ModuleIndex.Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(entry -> new GoVersion(entry.name), ModuleIndex.ORDER));
+        final List<byte[]> names = new ArrayList<>(sorted.size());
+        int size = ModuleIndex.HEADER + Integer.BYTES * sorted.size();
+        int latest = -1;
+        for (int idx = 0; idx < sorted.size(); idx += 1) {
+            final byte[] name = sorted.get(idx).name.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += ModuleIndex.ENTRY + name.length;
+            if (latest < 0 || GoVersion.LATEST.compare(
+                new GoVersion(sorted.get(idx).name), new GoVersion(sorted.get(latest).name)
+            ) >= 0) {
+                latest = idx;
+            }
+        }
+        final ByteBuffer res = ByteBuffer.allocate(size);
+        res.putInt(ModuleIndex.MAGIC).put(ModuleIndex.FORMAT).putInt(sorted.size()).putInt(latest);
+        int offset = ModuleIndex.HEADER + Integer.BYTES * sorted.size();
+        for (final byte[] name : names) {
+            res.putInt(offset);
+            offset += ModuleIndex.ENTRY + name.length;
+        }
+        for (int idx = 0; idx < sorted.size(); idx += 1) {
+            res.putLong(sorted.get(idx).time).putShort((short) names.get(idx).length)
+                .put(names.get(idx));
+        }
+        res.flip();
+        return new ModuleIndex(res);
+    }
+
+    /**
+     * Index bytes.
+     * @return Buffer with the index
+     */
+    ByteBuffer buffer() {
+        return this.buf.duplicate();
+    }
+
+    /**
+     * Metadata of the entry.
+     * @param idx Entry number
+     * @return Metadata if publish time is known
+     */
+    private Optional<String> info(final int idx) {
+        final long time = this.buf.getLong(this.offset(idx));
+        final Optional<String> res;
+        if (time == Long.MIN_VALUE) {
+            res = Optional.empty();
+        } else {
+            res = Optional.of(ModuleIndex.Entry.json(this.version(idx), time));
+        }
+        return res;
+    }
+
+    /**
+     * Version of the entry.
+     * @param idx Entry number
+     * @return Version text
+     */
+    private String version(final int idx) {
+        final int offset = this.offset(idx);
+        final int length = Short.toUnsignedInt(this.buf.getShort(offset + Long.BYTES));
+        final byte[] name = new byte[length];
+        final ByteBuffer dup = this.buf.duplicate();
+        dup.position(offset + ModuleIndex.ENTRY);
+        dup.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Entry offset.
+     * @param idx Entry number
+     * @return Offset in the buffer
+     */
+    private int offset(final int idx) {
+        return this.buf.getInt(ModuleIndex.HEADER + Integer.BYTES * idx);
+    }
+
+    /**
+     * Check index magic number and format.
+     */
+    private void check() {
+        if (this.buf.remaining() < ModuleIndex.HEADER
+            || this.buf.getInt(0) != ModuleIndex.MAGIC
+            || this.buf.get(Integer.BYTES) != ModuleIndex.FORMAT) {
+            throw new IllegalStateException("Not a module index of known format");
+        }
+    }
+
+    /**
+     * Indexed version.
+     * @since 0.4
+     */
+    static final class Entry {
+
+        /**
+         * Time field of the metadata JSON.
+         */
+        private static final String TIME = "\"Time\":\"";
+
+        /**
+         * Version text.
+         */
+        private final String name;
+
+        /**
+         * Publish time in epoch seconds, {@link Long#MIN_VALUE} if unknown.
+         */
+        private final long time;
+
+        /**
+         * Ctor.
+         * @param version Version text, e.g. "v1.0.0"
+         * @param time Publish time in epoch seconds, {@link Long#MIN_VALUE} if unknown
+         */
+        Entry(final String version, final long time) {
+            this.name = version;
+            this.time = time;
+        }
+
+        /**
+         * Version text.
+         * @return Version
+         */
+        String version() {
+            return this.name;
+        }
+
+        /**
+         * Entry of the version metadata: publish time is kept only if the metadata
+         * is rendered back to the same JSON.
+         * @param version Version text
+         * @param info Metadata, {@code .info} file content
+         * @return Entry
+         */
+        static ModuleIndex.Entry parsed(final String version, final String info) {
+            final int start = info.indexOf(ModuleIndex.Entry.TIME)
+                + ModuleIndex.Entry.TIME.length();
+            final int end = info.indexOf('"', start);
+            long time = Long.MIN_VALUE;
+            if (start >= ModuleIndex.Entry.TIME.length() && end > start) {
+                try {
+                    final long parsed = Instant.parse(info.substring(start, end)).getEpochSecond();
+                    if (ModuleIndex.Entry.json(version, parsed).equals(info)) {
+                        time = parsed;
+                    }
+                } catch (final DateTimeParseException ignored) {
+                    time = Long.MIN_VALUE;
+                }
+            }
+            return new ModuleIndex.Entry(version, time);
+        }
+
+        /**
+         * Version metadata JSON.
+         * @param version Version text
+         * @param time Publish time in epoch seconds
+         * @return Metadata
+         */
+        private static String json(final String version, final long time) {
+            return String.format(
+                "{\"Version\":\"%s\",\"Time\":\"%s\"}",
+                version, DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(time))
+            );
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.rx.RxStorage;
+import io.reactivex.Completable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Versions index updates serialized per module.
+ * <p>
+ * Every module has its own queue of versions to add: only one index update
+ * is running for the module at a time, and all the versions queued while it was running
+ * are added to the index by the next single update. Updates of different modules
+ * don't wait for each other. The versions list and the latest version index are rendered
+ * from the index, see {@link VersionIndex}.
+ * @since 0.4
+ */
+final class ModuleUpdates {
+
+    /**
+     * The storage.
+     */
+    private final RxStorage storage;
+
+    /**
+     * Modules with queued or running updates.
+     */
+    private final ConcurrentMap<String, Module> modules;
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     */
+    ModuleUpdates(final RxStorage storage) {
+        this.storage = storage;
+        this.modules = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Add version to the module versions index.
+     * @param module Module path, e.g. "example.com/foo/bar"
+     * @param version Version, e.g. "v0.0.1"
+     * @return Completion or error signal, emitted when the list and the index are updated
+     */
+    public Completable add(final String module, final String version) {
+        return this.add(module, Collections.singletonList(version));
+    }
+
+    /**
+     * Add versions to the module versions index at once: unless an update
+     * of the module is running, they are added by single index update.
+     * @param module Module path, e.g. "example.com/foo/bar"
+     * @param versions Versions, e.g. "v0.0.1"
+     * @return Completion or error signal, emitted when the list and the index are updated
+     */
+    public Completable add(final String module, final Collection<String> versions) {
+        return Completable.defer(
+            () -> {
+                final Queued queued = new Queued(versions);
+                this.modules.compute(
+                    module,
+                    (key, existing) -> {
+                        final Module res;
+                        if (existing == null) {
+                            res = new Module(key);
+                        } else {
+                            res = existing;
+                        }
+                        res.push(queued);
+                        return res;
+                    }
+                ).drain();
+                return queued.completion();
+            }
+        );
+    }
+
+    /**
+     * Module updates queue.
+     * @since 0.4
+     */
+    private final class Module {
+
+        /**
+         * Module path.
+         */
+        private final String name;
+
+        /**
+         * Versions waiting for the update, queued by one call each.
+         */
+        private final List<Queued> pending;
+
+        /**
+         * Lock for pending versions and running flag.
+         */
+        private final Object lock;
+
+        /**
+         * Is update running now.
+         */
+        private boolean running;
+
+        /**
+         * Ctor.
+         * @param name Module path
+         */
+        Module(final String name) {
+            this.name = name;
+            this.pending = new ArrayList<>(1);
+            this.lock = new Object();
+        }
+
+        /**
+         * Queue versions.
+         * @param queued Queued versions
+         */
+        void push(final Queued queued) {
+            synchronized (this.lock) {
+                this.pending.add(queued);
+            }
+        }
+
+        /**
+         * Start the update of all the queued versions, unless an update is running already.
+         */
+        void drain() {
+            final List<Queued> batch = this.take();
+            if (!batch.isEmpty()) {
+                final Set<String> versions = new LinkedHashSet<>(batch.size());
+                for (final Queued queued : batch) {
+                    versions.addAll(queued.versions);
+                }
+                new VersionIndex(ModuleUpdates.this.storage, this.name).add(versions)
+                    .subscribe(
+                        () -> this.finish(batch, null),
+                        err -> this.finish(batch, err)
+                    );
+            }
+        }
+
+        /**
+         * Is this queue idle.
+         * @return True if nothing is queued or running
+         */
+        boolean idle() {
+            synchronized (this.lock) {
+                return !this.running && this.pending.isEmpty();
+            }
+        }
+
+        /**
+         * Take all the queued versions and mark update as running.
+         * @return Queued versions, empty if update is running already
+         */
+        private List<Queued> take() {
+            synchronized (this.lock) {
+                final List<Queued> res;
+                if (this.running || this.pending.isEmpty()) {
+                    res = new ArrayList<>(0);
+                } else {
+                    this.running = true;
+                    res = new ArrayList<>(this.pending);
+                    this.pending.clear();
+                }
+                return res;
+            }
+        }
+
+        /**
+         * Finish the update: notify the callers, start next update if something
+         * was queued meanwhile or forget this module otherwise.
+         * @param batch Updated versions
+         * @param err Update error or null on success
+         */
+        @SuppressWarnings("PMD.NullAssignment")
+        private void finish(final List<Queued> batch, final Throwable err) {
+            for (final Queued queued : batch) {
+                queued.done(err);
+            }
+            synchronized (this.lock) {
+                this.running = false;
+            }
+            this.drain();
+            ModuleUpdates.this.modules.computeIfPresent(
+                this.name,
+                (key, module) -> {
+                    final Module res;
+                    if (module.idle()) {
+                        res = null;
+                    } else {
+                        res = module;
+                    }
+                    return res;
+                }
+            );
+        }
+    }
+
+    /**
+     * Versions queued for the update by one call, they are always added
+     * by the same update and share its result.
+     * @since 0.4
+     */
+    private static final class Queued {
+
+        /**
+         * Versions.
+         */
+        private final Collection<String> versions;
+
+        /**
+         * Update result.
+         */
+        private final CompletableFuture<Void> result;
+
+        /**
+         * Ctor.
+         * @param versions Versions
+         */
+        Queued(final Collection<String> versions) {
+            this.versions = versions;
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Update completion.
+         * @return Completion or error signal
+         */
+        Completable completion() {
+            return Completable.create(
+                emitter -> this.result.whenComplete(
+                    (nothing, err) -> {
+                        if (err == null) {
+                            emitter.onComplete();
+                        } else {
+                            emitter.onError(err);
+                        }
+                    }
+                )
+            );
+        }
+
+        /**
+         * Mark update as done.
+         * @param err Update error or null on success
+         */
+        void done(final Throwable err) {
+            if (err == null) {
+                this.result.complete(null);
+            } else {
+                this.result.completeExceptionally(err);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.rx.RxStorage;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writer of the module versions index, see {@link ModuleIndex}.
+ * <p>
+ * The index is the source of truth for the module versions: right after it's saved,
+ * the versions which were not indexed yet are appended to the versions list
+ * {@code <module>/@v/list} in the order they were published, see {@link VersionList},
+ * and the latest version index {@code <module>/@latest} is rendered from it.
+ * New versions are indexed with the time from their {@code .info} files, metadata of
+ * indexed versions is not read again. The versions are read from the list only if
+ * the module has no index yet, e.g. it was published before the index was introduced:
+ * listed versions are indexed along with the new ones.
+ * @since 0.4
+ */
+final class VersionIndex {
+
+    /**
+     * The storage.
+     */
+    private final RxStorage storage;
+
+    /**
+     * Module path.
+     */
+    private final String module;
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param module Module path, e.g. "example.com/foo/bar"
+     */
+    VersionIndex(final RxStorage storage, final String module) {
+        this.storage = storage;
+        this.module = module;
+    }
+
+    /**
+     * Add versions to the index and the versions list, render latest version index:
+     * nothing is written if all the versions are indexed already.
+     * @param versions New versions, e.g. "v0.0.1"
+     * @return Completion or error signal
+     */
+    public Completable add(final Collection<String> versions) {
+        final Key key = new Key.From(String.format("%s/%s", this.module, ModuleIndex.FILE));
+        return this.read(key).flatMapCompletable(
+            buf -> {
+                final Completable res;
+                if (buf.hasRemaining()) {
+                    res = this.update(key, new ModuleIndex(buf).entries(), versions);
+                } else {
+                    res = this.listed().flatMapCompletable(
+                        listed -> {
+                            final Set<String> all = new LinkedHashSet<>(listed);
+                            all.addAll(versions);
+                            return this.update(key, Collections.emptyList(), all);
+                        }
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Index versions which are not indexed yet.
+     * @param key Index key
+     * @param known Indexed versions
+     * @param versions Versions to index
+     * @return Completion or error signal
+     */
+    private Completable update(final Key key, final List<ModuleIndex.Entry> known,
+        final Collection<String> versions) {
+        final Set<String> missing = new LinkedHashSet<>(versions);
+        for (final ModuleIndex.Entry entry : known) {
+            missing.remove(entry.version());
+        }
+        final Completable res;
+        if (missing.isEmpty()) {
+            res = Completable.complete();
+        } else {
+            res = Flowable.fromIterable(missing).concatMapSingle(this::entry).toList()
+                .flatMapCompletable(
+                    added -> {
+                        final List<ModuleIndex.Entry> all = new ArrayList<>(known);
+                        all.addAll(added);
+                        final ModuleIndex index = ModuleIndex.from(all);
+                        return this.save(key, index.buffer())
+                            .andThen(new VersionList(this.storage, this.module).add(missing))
+                            .andThen(this.latest(index, all));
+                    }
+                );
+        }
+        return res;
+    }
+
+    /**
+     * Save latest version index: the metadata rendered by the index or, if the time
+     * of the latest version is not indexed, its {@code .info} file as is.
+     * @param index Index
+     * @param entries Indexed versions
+     * @return Completion or error signal
+     */
+    private Completable latest(final ModuleIndex index,
+        final Collection<ModuleIndex.Entry> entries) {
+        final Key key = new Key.From(String.format("%s/@latest", this.module));
+        final Optional<String> info = index.latest();
+        final Completable res;
+        if (info.isPresent()) {
+            res = this.save(key, ByteBuffer.wrap(info.get().getBytes(StandardCharsets.UTF_8)));
+        } else {
+            res = Flowable.fromIterable(entries)
+                .map(entry -> new GoVersion(entry.version()))
+                .sorted(GoVersion.LATEST)
+                .lastElement()
+                .flatMapSingle(best -> this.read(this.info(best.toString())))
+                .filter(ByteBuffer::hasRemaining)
+                .flatMapCompletable(buf -> this.save(key, buf));
+        }
+        return res;
+    }
+
+    /**
+     * Save the bytes.
+     * @param key Key
+     * @param buf Bytes
+     * @return Completion or error signal
+     */
+    private Completable save(final Key key, final ByteBuffer buf) {
+        return this.storage.save(key, new Content.From(buf.remaining(), Flowable.just(buf)));
+    }
+
+    /**
+     * Listed versions.
+     * @return Versions from the list
+     */
+    private Single<List<String>> listed() {
+        return this.read(this.list()).map(
+            buf -> {
+                final List<String> res = new ArrayList<>(0);
+                for (final String line : VersionIndex.text(buf).split("\n")) {
+                    final String version = line.trim();
+                    if (!version.isEmpty()) {
+                        res.add(version);
+                    }
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Index entry of the version.
+     * @param version Version, e.g. "v1.0.0"
+     * @return Entry, with unknown time if there is no metadata
+     */
+    private Single<ModuleIndex.Entry> entry(final String version) {
+        return this.read(this.info(version))
+            .map(buf -> ModuleIndex.Entry.parsed(version, VersionIndex.text(buf)));
+    }
+
+    /**
+     * Key of the versions list.
+     * @return Key of {@code @v/list} file
+     */
+    private Key list() {
+        return new Key.From(String.format("%s/@v/list", this.module));
+    }
+
+    /**
+     * Key of the version metadata.
+     * @param version Version, e.g. "v1.0.0"
+     * @return Key of {@code .info} file
+     */
+    private Key info(final String version) {
+        return new Key.From(String.format("%s/@v/%s.info", this.module, version));
+    }
+
+    /**
+     * File bytes.
+     * @param key File key
+     * @return Bytes, empty if the file doesn't exist
+     */
+    private Single<ByteBuffer> read(final Key key) {
+        return this.storage.exists(key).flatMap(
+            exists -> {
+                final Single<ByteBuffer> res;
+                if (exists) {
+                    res = this.storage.value(key)
+                        .flatMap(content -> new Aggregation(content).single());
+                } else {
+                    res = Single.just(ByteBuffer.allocate(0));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Text of the bytes.
+     * @param buf Bytes
+     * @return UTF-8 text
+     */
+    private static String text(final ByteBuffer buf) {
+        return StandardCharsets.UTF_8.decode(buf.duplicate()).toString();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.rx.RxStorage;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Versions list of the module, {@code <module>/@v/list} file.
+ * <p>
+ * New versions are appended to the end of the list: existing bytes are scanned
+ * line by line only to find versions which are already listed, and then saved back
+ * as is, followed by the new lines. If all the versions are listed already,
+ * the file is not written at all.
+ * @since 0.4
+ */
+final class VersionList {
+
+    /**
+     * Line separator.
+     */
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * The storage.
+     */
+    private final RxStorage storage;
+
+    /**
+     * List key.
+     */
+    private final Key key;
+
+    /**
+     * Ctor.
+     * @param storage The storage
+     * @param module Module path, e.g. "example.com/foo/bar"
+     */
+    VersionList(final RxStorage storage, final String module) {
+        this.storage = storage;
+        this.key = new Key.From(String.format("%s/@v/list", module));
+    }
+
+    /**
+     * Add versions to the list.
+     * @param versions Versions, e.g. "v0.0.1"
+     * @return Completion or error signal
+     */
+    public Completable add(final Collection<String> versions) {
+        return this.current().flatMapCompletable(
+            existing -> {
+                final Set<String> missing = new LinkedHashSet<>(versions);
+                VersionList.listed(existing, missing);
+                final Completable res;
+                if (missing.isEmpty()) {
+                    res = Completable.complete();
+                } else {
+                    final ByteBuffer tail = VersionList.lines(existing, missing);
+                    res = this.storage.save(
+                        this.key,
+                        new Content.From(
+                            existing.remaining() + tail.remaining(),
+                            Flowable.just(existing, tail)
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Current list bytes.
+     * @return Bytes of the list, empty if the list doesn't exist
+     */
+    private Single<ByteBuffer> current() {
+        return this.storage.exists(this.key).flatMap(
+            exists -> {
+                final Single<ByteBuffer> res;
+                if (exists) {
+                    res = this.storage.value(this.key)
+                        .flatMap(content -> new Aggregation(content).single());
+                } else {
+                    res = Single.just(ByteBuffer.allocate(0));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Remove already listed versions from the candidates.
+     * Only lines with the same length as one of the candidates are decoded.
+     * @param list List bytes
+     * @param candidates Versions to check
+     */
+    private static void listed(final ByteBuffer list, final Set<String> candidates) {
+        final Set<Integer> lengths = new LinkedHashSet<>(candidates.size());
+        for (final String version : candidates) {
+            lengths.add(version.getBytes(StandardCharsets.UTF_8).length);
+        }
+        final int end = list.limit();
+        int start = list.position();
+        while (start < end && !candidates.isEmpty()) {
+            int stop = start;
+            while (stop < end && list.get(stop) != VersionList.NEWLINE) {
+                stop += 1;
+            }
+            int len = stop - start;
+            if (len > 0 && list.get(stop - 1) == '\r') {
+                len -= 1;
+            }
+            if (lengths.contains(len)) {
+                final byte[] line = new byte[len];
+                final ByteBuffer dup = list.duplicate();
+                dup.position(start);
+                dup.get(line);
+                candidates.remove(new String(line, StandardCharsets.UTF_8));
+            }
+            start = stop + 1;
+        }
+    }
+
+    /**
+     * New lines to append to the list.
+     * @param list Existing list bytes
+     * @param versions Versions to append
+     * @return Bytes to append
+     */
+    private static ByteBuffer lines(final ByteBuffer list, final Collection<String> versions) {
+        final StringBuilder text = new StringBuilder();
+        if (list.hasRemaining() && list.get(list.limit() - 1) != VersionList.NEWLINE) {
+            text.append('\n');
+        }
+        text.append(String.join("\n", versions));
+        return ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * ZIP format writer.
+ * <p>
+ * Writer produces ZIP records: entry headers, data descriptors and central
+ * directory, entry data is produced by the caller and only passed through the writer
+ * to keep track of offsets. Entries with unknown size are written with data descriptor
+ * after the data. ZIP64 is not supported: Go module archives are limited to 500 MiB.
+ * Writer is not thread safe and should be used sequentially.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ZipWriter {
+
+    /**
+     * Stored (uncompressed) entry method.
+     */
+    static final int STORE = 0;
+
+    /**
+     * Deflated entry method.
+     */
+    static final int DEFLATE = 8;
+
+    /**
+     * Data descriptor flag.
+     */
+    private static final int DESCRIPTOR = 0x08;
+
+    /**
+     * UTF-8 file names flag.
+     */
+    private static final int UTF_EIGHT = 0x800;
+
+    /**
+     * Max value of 32 bit fields.
+     */
+    private static final long MAX_INT = 0xFFFFFFFFL;
+
+    /**
+     * Central directory records.
+     */
+    private final ByteArrayOutputStream directory;
+
+    /**
+     * Bytes written so far.
+     */
+    private long offset;
+
+    /**
+     * Entries written so far.
+     */
+    private int count;
+
+    /**
+     * Current entry.
+     */
+    private Entry current;
+
+    /**
+     * Ctor.
+     */
+    ZipWriter() {
+        this.directory = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Start entry with unknown size: data descriptor will be written after the data.
+     * @param name Entry name
+     * @param method Compression method
+     * @param time Modification time
+     * @return Local file header
+     */
+    ByteBuffer entry(final String name, final int method, final LocalDateTime time) {
+        return this.start(
+            new Entry(name, method, ZipWriter.DESCRIPTOR | ZipWriter.UTF_EIGHT, time), 0, 0
+        );
+    }
+
+    /**
+     * Start stored entry with known size and checksum.
+     * @param name Entry name
+     * @param time Modification time
+     * @param crc CRC-32 of the data
+     * @param size Data size
+     * @return Local file header
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ByteBuffer stored(final String name, final LocalDateTime time, final long crc,
+        final long size) {
+        return this.start(
+            new Entry(name, ZipWriter.STORE, ZipWriter.UTF_EIGHT, time), crc, size
+        );
+    }
+
+    /**
+     * Entry data.
+     * @param data Data bytes, compressed according to entry method
+     * @return The same bytes
+     */
+    ByteBuffer data(final byte[] data) {
+        this.offset += data.length;
+        return ByteBuffer.wrap(data);
+    }
+
+    /**
+     * Finish current entry.
+     * @param crc CRC-32 of uncompressed data
+     * @param size Uncompressed data size
+     * @return Data descriptor, empty if the entry doesn't need it
+     */
+    ByteBuffer close(final long crc, final long size) {
+        final Entry entry = this.current;
+        final long csize = this.offset - entry.data;
+        if (csize > ZipWriter.MAX_INT || size > ZipWriter.MAX_INT) {
+            throw new IllegalStateException(
+                String.format("Entry %s is too large for ZIP without ZIP64", entry.name)
+            );
+        }
+        final ByteBuffer res;
+        if ((entry.flags & ZipWriter.DESCRIPTOR) == 0) {
+            res = ByteBuffer.allocate(0);
+        } else {
+            res = ZipWriter.buffer(16)
+                .putInt(0x08074b50)
+                .putInt((int) crc)
+                .putInt((int) csize)
+                .putInt((int) size);
+            res.flip();
+            this.offset += res.remaining();
+        }
+        final ByteBuffer record = ZipWriter.buffer(46 + entry.bytes.length)
+            .putInt(0x02014b50)
+            .putShort((short) 20)
+            .putShort((short) ZipWriter.version(entry.method))
+            .putShort((short) entry.flags)
+            .putShort((short) entry.method)
+            .putInt((int) entry.time)
+            .putInt((int) crc)
+            .putInt((int) csize)
+            .putInt((int) size)
+            .putShort((short) entry.bytes.length)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putInt(0)
+            .putInt((int) entry.header)
+            .put(entry.bytes);
+        this.directory.write(record.array(), 0, record.position());
+        this.count += 1;
+        return res;
+    }
+
+    /**
+     * Finish the archive.
+     * @return Central directory and end of central directory record
+     */
+    ByteBuffer finish() {
+        if (this.count > 0xFFFF || this.offset > ZipWriter.MAX_INT) {
+            throw new IllegalStateException("Archive is too large for ZIP without ZIP64");
+        }
+        final int size = this.directory.size();
+        final ByteBuffer res = ZipWriter.buffer(size + 22)
+            .put(this.directory.toByteArray())
+            .putInt(0x06054b50)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) this.count)
+            .putShort((short) this.count)
+            .putInt(size)
+            .putInt((int) this.offset)
+            .putShort((short) 0);
+        res.flip();
+        this.offset += res.remaining();
+        return res;
+    }
+
+    /**
+     * Start entry.
+     * @param entry Entry
+     * @param crc CRC-32 or 0 if unknown
+     * @param size Data size or 0 if unknown
+     * @return Local file header
+     */
+    private ByteBuffer start(final Entry entry, final long crc, final long size) {
+        final ByteBuffer res = ZipWriter.buffer(30 + entry.bytes.length)
+            .putInt(0x04034b50)
+            .putShort((short) ZipWriter.version(entry.method))
+            .putShort((short) entry.flags)
+            .putShort((short) entry.method)
+            .putInt((int) entry.time)
+            .putInt((int) crc)
+            .putInt((int) size)
+            .putInt((int) size)
+            .putShort((short) entry.bytes.length)
+            .putShort((short) 0)
+            .put(entry.bytes);
+        res.flip();
+        entry.header = this.offset;
+        this.offset += res.remaining();
+        entry.data = this.offset;
+        this.current = entry;
+        return res;
+    }
+
+    /**
+     * Version needed to extract.
+     * @param method Compression method
+     * @return Version
+     */
+    private static int version(final int method) {
+        final int res;
+        if (method == ZipWriter.STORE) {
+            res = 10;
+        } else {
+            res = 20;
+        }
+        return res;
+    }
+
+    /**
+     * Little endian buffer.
+     * @param size Buffer size
+     * @return Buffer
+     */
+    private static ByteBuffer buffer(final int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Entry being written.
+     * @since 0.4
+     */
+    private static final class Entry {
+
+        /**
+         * Entry name.
+         */
+        private final String name;
+
+        /**
+         * Entry name bytes.
+         */
+        private final byte[] bytes;
+
+        /**
+         * Compression method.
+         */
+        private final int method;
+
+        /**
+         * General purpose flags.
+         */
+        private final int flags;
+
+        /**
+         * Modification time in MS-DOS format.
+         */
+        private final long time;
+
+        /**
+         * Local header offset.
+         */
+        private long header;
+
+        /**
+         * Data offset.
+         */
+        private long data;
+
+        /**
+         * Ctor.
+         * @param name Entry name
+         * @param method Compression method
+         * @param flags General purpose flags
+         * @param time Modification time
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Entry(final String name, final int method, final int flags,
+            final LocalDateTime time) {
+            this.name = name;
+            this.bytes = name.getBytes(StandardCharsets.UTF_8);
+            this.method = method;
+            this.flags = flags;
+            this.time = Entry.dos(time);
+        }
+
+        /**
+         * MS-DOS date and time.
+         * @param time Time
+         * @return Date in high and time in low 16 bits
+         */
+        private static int dos(final LocalDateTime time) {
+            final int date = (time.getYear() - 1980) << 9
+                | time.getMonthValue() << 5
+                | time.getDayOfMonth();
+            final int clock = time.getHour() << 11
+                | time.getMinute() << 5
+                | time.getSecond() >> 1;
+            return date << 16 | clock;
+        }
+    }
+}
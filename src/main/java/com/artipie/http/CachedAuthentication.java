@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.ext.Digests;
+import com.artipie.http.auth.Authentication;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Authentication which caches results of the origin: {@code go} clients send
+ * the same credentials with dozens of requests to resolve a module, so checking
+ * a password once per TTL is enough. Entries are keyed by SHA-256 of credentials,
+ * passwords are not kept in memory. Only successful attempts are cached: failed ones
+ * always go to the origin, so a stream of wrong credentials can't evict valid users.
+ * @since 0.4
+ */
+public final class CachedAuthentication implements Authentication {
+
+    /**
+     * Origin authentication.
+     */
+    private final Authentication origin;
+
+    /**
+     * Users by credentials hash.
+     */
+    private final ExpiringCache<String, Authentication.User> cache;
+
+    /**
+     * Ctor.
+     * @param origin Origin authentication
+     * @param capacity Max number of cached credentials
+     * @param ttl Time to live of the result
+     */
+    public CachedAuthentication(final Authentication origin, final int capacity,
+        final Duration ttl) {
+        this(origin, capacity, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin authentication
+     * @param capacity Max number of cached credentials
+     * @param ttl Time to live of the result
+     * @param clock Clock
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedAuthentication(final Authentication origin, final int capacity,
+        final Duration ttl, final Clock clock) {
+        this.origin = origin;
+        this.cache = new ExpiringCache<>(capacity, ttl, clock);
+    }
+
+    @Override
+    public Optional<Authentication.User> user(final String name, final String pass) {
+        final String key = CachedAuthentication.hash(name, pass);
+        Optional<Authentication.User> res = this.cache.cached(key);
+        if (!res.isPresent()) {
+            res = this.origin.user(name, pass);
+            res.ifPresent(user -> this.cache.put(key, user));
+        }
+        return res;
+    }
+
+    /**
+     * SHA-256 of credentials: name length, name and password, so names
+     * and passwords containing any characters don't collide.
+     * @param name User name
+     * @param pass Password
+     * @return Hex hash
+     */
+    private static String hash(final String name, final String pass) {
+        final byte[] user = name.getBytes(StandardCharsets.UTF_8);
+        final byte[] secret = pass.getBytes(StandardCharsets.UTF_8);
+        return String.format(
+            "%064x",
+            new BigInteger(
+                1,
+                Digests.SHA256.get().digest(
+                    ByteBuffer.allocate(Integer.BYTES + user.length + secret.length)
+                        .putInt(user.length).put(user).put(secret).array()
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.auth.Permissions;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Permissions which cache decisions of the origin by user name and action
+ * for a short time, so the origin is not asked on every request.
+ * @since 0.4
+ */
+public final class CachedPermissions implements Permissions {
+
+    /**
+     * Origin permissions.
+     */
+    private final Permissions origin;
+
+    /**
+     * Decisions by user name and action.
+     */
+    private final ExpiringCache<String, Boolean> cache;
+
+    /**
+     * Ctor.
+     * @param origin Origin permissions
+     * @param capacity Max number of cached decisions
+     * @param ttl Time to live of the decision
+     */
+    public CachedPermissions(final Permissions origin, final int capacity, final Duration ttl) {
+        this(origin, capacity, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin permissions
+     * @param capacity Max number of cached decisions
+     * @param ttl Time to live of the decision
+     * @param clock Clock
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedPermissions(final Permissions origin, final int capacity, final Duration ttl,
+        final Clock clock) {
+        this.origin = origin;
+        this.cache = new ExpiringCache<>(capacity, ttl, clock);
+    }
+
+    @Override
+    public boolean allowed(final String name, final String action) {
+        return this.cache.value(
+            String.format("%s\n%s", name, action), key -> this.origin.allowed(name, action)
+        );
+    }
+}
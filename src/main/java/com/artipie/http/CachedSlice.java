@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Remaining;
+import com.artipie.goproxy.Aggregation;
+import com.artipie.goproxy.Metrics;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which caches successful responses of the origin slice in
+ * {@link MetadataCache} by request path.
+ * @since 0.4
+ */
+public final class CachedSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Cache.
+     */
+    private final MetadataCache cache;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param cache Cache
+     */
+    public CachedSlice(final Slice origin, final MetadataCache cache) {
+        this(origin, cache, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param cache Cache
+     * @param metrics Metrics: {@code cache.hits} and {@code cache.misses} counters
+     */
+    public CachedSlice(final Slice origin, final MetadataCache cache, final Metrics metrics) {
+        this.origin = origin;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final String key = GoPath.from(line, headers).key().string();
+        final Optional<MetadataCache.Item> cached = this.cache.get(key);
+        final Response res;
+        if (cached.isPresent()) {
+            this.metrics.add("cache.hits", 1);
+            res = new RsFull(
+                RsStatus.OK, cached.get().headers(), Flowable.just(cached.get().body())
+            );
+        } else {
+            this.metrics.add("cache.misses", 1);
+            final long generation = this.cache.generation();
+            final Response rsp = this.origin.response(line, headers, body);
+            res = connection -> rsp.send(
+                (status, rsheaders, rsbody) -> {
+                    final CompletableFuture<Void> sent;
+                    if (status == RsStatus.OK) {
+                        final CompletableFuture<byte[]> bytes = new CompletableFuture<>();
+                        new Aggregation(new Content.From(rsbody)).single().subscribe(
+                            buf -> bytes.complete(new Remaining(buf).bytes()),
+                            bytes::completeExceptionally
+                        );
+                        sent = bytes.thenCompose(
+                            data -> {
+                                this.cache.put(key, generation, rsheaders, data);
+                                return connection.accept(
+                                    status, rsheaders, Flowable.just(ByteBuffer.wrap(data))
+                                );
+                            }
+                        );
+                    } else {
+                        sent = connection.accept(status, rsheaders, rsbody)
+                            .toCompletableFuture();
+                    }
+                    return sent;
+                }
+            );
+        }
+        return res;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which coalesces concurrent requests for the same path.
+ * <p>
+ * The first request goes to the origin slice, requests for the same path
+ * coming while its response body is being read get the same response:
+ * the body is read from the origin once and replayed to every request.
+ * The whole body is read eagerly and kept in memory until all of them are done
+ * with it, so the slice is meant for small metadata responses only: artifacts,
+ * e.g. module archives, should be streamed without it.
+ * @since 0.4
+ */
+final class CoalescingSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Responses in flight by path.
+     */
+    private final SingleFlight<String, Shared> flights;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     */
+    CoalescingSlice(final Slice origin) {
+        this.origin = origin;
+        this.flights = new SingleFlight<>();
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final String key = GoPath.from(line, headers).key().string();
+        return connection -> this.flights.join(
+            key, land -> CoalescingSlice.share(this.origin.response(line, headers, body), land)
+        ).thenCompose(shared -> shared.send(connection));
+    }
+
+    /**
+     * Share origin response.
+     * @param response Origin response
+     * @param land Action to land the flight
+     * @return Shared response
+     */
+    private static CompletionStage<Shared> share(final Response response, final Runnable land) {
+        final CompletableFuture<Shared> res = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> {
+                final Flowable<ByteBuffer> cached = Flowable.fromPublisher(body)
+                    .doFinally(land::run)
+                    .cache();
+                cached.subscribe(buf -> { }, err -> { });
+                res.complete(new Shared(status, headers, cached));
+                return CompletableFuture.allOf();
+            }
+        ).whenComplete(
+            (nothing, err) -> {
+                if (err == null) {
+                    res.completeExceptionally(
+                        new IllegalStateException("Origin response was not sent")
+                    );
+                } else {
+                    res.completeExceptionally(err);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Response shared by coalesced requests.
+     * @since 0.4
+     */
+    private static final class Shared {
+
+        /**
+         * Status.
+         */
+        private final RsStatus status;
+
+        /**
+         * Headers.
+         */
+        private final Headers headers;
+
+        /**
+         * Replayable body.
+         */
+        private final Flowable<ByteBuffer> body;
+
+        /**
+         * Ctor.
+         * @param status Status
+         * @param headers Headers
+         * @param body Replayable body
+         */
+        Shared(final RsStatus status, final Headers headers,
+            final Flowable<ByteBuffer> body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * Send the response to connection.
+         * @param connection Connection
+         * @return Completion
+         */
+        CompletionStage<Void> send(final Connection connection) {
+            return connection.accept(
+                this.status, this.headers, this.body.map(ByteBuffer::duplicate)
+            );
+        }
+    }
+}
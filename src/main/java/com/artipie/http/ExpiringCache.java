@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of values with time to live: least recently used
+ * entries are evicted when there are more entries than the cache may hold.
+ * Values are loaded out of the lock, so concurrent misses of the same key may
+ * load it more than once.
+ * @param <K> Key type
+ * @param <V> Value type
+ * @since 0.4
+ */
+final class ExpiringCache<K, V> {
+
+    /**
+     * Max number of entries.
+     */
+    private final int capacity;
+
+    /**
+     * Time to live of the entry.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Cached entries in access order.
+     */
+    private final Map<K, Item<V>> items;
+
+    /**
+     * Ctor.
+     * @param capacity Max number of entries
+     * @param ttl Time to live of the entry
+     * @param clock Clock
+     */
+    ExpiringCache(final int capacity, final Duration ttl, final Clock clock) {
+        this.capacity = capacity;
+        this.ttl = ttl;
+        this.clock = clock;
+        // @checkstyle MagicNumberCheck (1 line)
+        this.items = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Cached value of the key, loaded if it's not cached or expired.
+     * @param key Key
+     * @param load Value loader
+     * @return Value
+     */
+    V value(final K key, final Function<K, V> load) {
+        final Optional<V> cached = this.cached(key);
+        final V res;
+        if (cached.isPresent()) {
+            res = cached.get();
+        } else {
+            res = load.apply(key);
+            this.put(key, res);
+        }
+        return res;
+    }
+
+    /**
+     * Cached value of the key.
+     * @param key Key
+     * @return Value or empty if it's not cached or expired
+     */
+    Optional<V> cached(final K key) {
+        final Item<V> item;
+        synchronized (this.items) {
+            item = this.items.get(key);
+        }
+        final Optional<V> res;
+        if (item == null || !this.clock.instant().isBefore(item.expires)) {
+            res = Optional.empty();
+        } else {
+            res = Optional.of(item.val);
+        }
+        return res;
+    }
+
+    /**
+     * Cache the value evicting least recently used entries if the cache is full.
+     * @param key Key
+     * @param value Value
+     */
+    void put(final K key, final V value) {
+        final Item<V> item = new Item<>(value, this.clock.instant().plus(this.ttl));
+        synchronized (this.items) {
+            this.items.put(key, item);
+            final Iterator<K> iter = this.items.keySet().iterator();
+            while (this.items.size() > this.capacity) {
+                iter.next();
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Cached value.
+     * @param <V> Value type
+     * @since 0.4
+     */
+    private static final class Item<V> {
+
+        /**
+         * Value.
+         */
+        private final V val;
+
+        /**
+         * Expiration time.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param val Value
+         * @param expires Expiration time
+         */
+        Item(final V val, final Instant expires) {
+            this.val = val;
+            this.expires = expires;
+        }
+    }
+}
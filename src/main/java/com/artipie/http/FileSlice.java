@@ -0,0 +1,319 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.reactivestreams.Publisher;
+
+/**
+ * Download slice of {@link LocalStorage} files: the body is streamed from
+ * memory mapped file, so it's read from page cache without copying to heap
+ * buffers. Responses are the same as of {@link com.artipie.http.slice.SliceDownload}.
+ * <p>
+ * File is checked and mapped on the scheduler of the storage, see
+ * {@link LocalStorage#LocalStorage(Path, Executor)}. Mapping of the file is kept
+ * and shared by the requests for it while the file is not changed, so serving
+ * the same archive repeatedly doesn't map it again; the body is sent as slices
+ * of the mapping.
+ * @since 0.4
+ */
+final class FileSlice implements Slice {
+
+    /**
+     * Default size of body chunk.
+     */
+    private static final int CHUNK = 4 * 1024 * 1024;
+
+    /**
+     * Max size of one mapped region.
+     */
+    private static final int REGION = 1024 * 1024 * 1024;
+
+    /**
+     * Max number of files which mappings are kept.
+     */
+    private static final int FILES = 64;
+
+    /**
+     * Time to keep mapping of the file.
+     */
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    /**
+     * Storage directory.
+     */
+    private final Path dir;
+
+    /**
+     * Size of body chunk.
+     */
+    private final int chunk;
+
+    /**
+     * Scheduler of blocking file checks and mappings.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Mappings of files.
+     */
+    private final ExpiringCache<Path, Mapping> mappings;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    FileSlice(final LocalStorage storage) {
+        this(storage.directory(), FileSlice.CHUNK, storage.scheduler());
+    }
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     * @param chunk Size of body chunk
+     * @param executor Executor of blocking file checks and mappings
+     */
+    FileSlice(final Path dir, final int chunk, final Executor executor) {
+        this(dir, chunk, Schedulers.from(executor));
+    }
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     * @param chunk Size of body chunk
+     * @param scheduler Scheduler of blocking file checks and mappings
+     */
+    private FileSlice(final Path dir, final int chunk, final Scheduler scheduler) {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.chunk = chunk;
+        this.scheduler = scheduler;
+        this.mappings = new ExpiringCache<>(FileSlice.FILES, FileSlice.TTL, Clock.systemUTC());
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Key key = GoPath.from(line, headers).key();
+        final Path file = this.dir.resolve(key.string()).normalize();
+        return new AsyncResponse(
+            Single.fromCallable(() -> this.mapping(file))
+                .subscribeOn(this.scheduler)
+                .map(
+                    mapping -> {
+                        final Response res;
+                        if (mapping.isPresent()) {
+                            res = mapping.get().response(this.chunk);
+                        } else {
+                            res = new RsWithStatus(
+                                new RsWithBody(
+                                    String.format("Key %s not found", key.string()),
+                                    StandardCharsets.UTF_8
+                                ),
+                                RsStatus.NOT_FOUND
+                            );
+                        }
+                        return res;
+                    }
+                )
+        );
+    }
+
+    /**
+     * Mapping of the file, existing one if the file was not changed since it was mapped.
+     * @param file File
+     * @return Mapping or empty if there is no such file in the directory
+     * @throws IOException On error
+     */
+    private Optional<Mapping> mapping(final Path file) throws IOException {
+        Optional<Mapping> res = Optional.empty();
+        if (file.startsWith(this.dir)) {
+            final Optional<BasicFileAttributes> attrs = FileSlice.attributes(file);
+            if (attrs.isPresent() && attrs.get().isRegularFile()) {
+                res = Optional.of(this.mapping(file, attrs.get()));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Mapping of the regular file: existing one or new mapping.
+     * @param file File
+     * @param attrs Actual file attributes
+     * @return Mapping
+     * @throws IOException On error
+     */
+    private Mapping mapping(final Path file, final BasicFileAttributes attrs)
+        throws IOException {
+        final Optional<Mapping> cached = this.mappings.cached(file)
+            .filter(mapping -> mapping.actual(attrs));
+        final Mapping res;
+        if (cached.isPresent()) {
+            res = cached.get();
+        } else {
+            res = FileSlice.map(file, attrs);
+            this.mappings.put(file, res);
+        }
+        return res;
+    }
+
+    /**
+     * File attributes.
+     * @param file File
+     * @return Attributes or empty if there is no such file
+     * @throws IOException On error
+     */
+    private static Optional<BasicFileAttributes> attributes(final Path file)
+        throws IOException {
+        Optional<BasicFileAttributes> res;
+        try {
+            res = Optional.of(Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (final NoSuchFileException ex) {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Map the file.
+     * @param file File
+     * @param attrs File attributes
+     * @return Mapping
+     * @throws IOException On error
+     */
+    private static Mapping map(final Path file, final BasicFileAttributes attrs)
+        throws IOException {
+        final List<ByteBuffer> regions = new ArrayList<>(1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = Math.min(attrs.size(), channel.size());
+            for (long pos = 0; pos < size; pos += FileSlice.REGION) {
+                regions.add(
+                    channel.map(
+                        FileChannel.MapMode.READ_ONLY, pos, Math.min(FileSlice.REGION, size - pos)
+                    )
+                );
+            }
+        }
+        return new Mapping(regions, attrs);
+    }
+
+    /**
+     * Mapped file.
+     * @since 0.4
+     */
+    private static final class Mapping {
+
+        /**
+         * Mapped regions.
+         */
+        private final List<ByteBuffer> regions;
+
+        /**
+         * Attributes of the file when it was mapped.
+         */
+        private final BasicFileAttributes attrs;
+
+        /**
+         * File size.
+         */
+        private final long size;
+
+        /**
+         * Ctor.
+         * @param regions Mapped regions
+         * @param attrs Attributes of the file when it was mapped
+         */
+        Mapping(final List<ByteBuffer> regions, final BasicFileAttributes attrs) {
+            this.regions = regions;
+            this.attrs = attrs;
+            this.size = regions.stream().mapToLong(ByteBuffer::capacity).sum();
+        }
+
+        /**
+         * Does the mapping reflect the file with given attributes.
+         * @param actual Actual file attributes
+         * @return True if the file was not changed
+         */
+        boolean actual(final BasicFileAttributes actual) {
+            return actual.size() == this.attrs.size()
+                && actual.lastModifiedTime().equals(this.attrs.lastModifiedTime());
+        }
+
+        /**
+         * Response with the file content.
+         * @param chunk Max size of body chunk
+         * @return Response
+         */
+        Response response(final int chunk) {
+            return new RsWithStatus(
+                new RsWithBody(new Content.From(this.size, this.chunks(chunk))),
+                RsStatus.OK
+            );
+        }
+
+        /**
+         * File content as slices of the mapping.
+         * @param chunk Max slice size
+         * @return Slices publisher
+         */
+        private Flowable<ByteBuffer> chunks(final int chunk) {
+            return Flowable.fromIterable(this.regions).concatMap(
+                region -> Flowable.range(0, (region.capacity() + chunk - 1) / chunk).map(
+                    num -> {
+                        final ByteBuffer dup = region.duplicate();
+                        final long start = (long) num * chunk;
+                        dup.position((int) start);
+                        dup.limit((int) Math.min(region.capacity(), start + chunk));
+                        return dup.slice();
+                    }
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.slice.KeyFromPath;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Request path of Go module proxy protocol, classified in one scan of its suffix:
+ * <ul>
+ *   <li>{@code <module>/@v/<version>.info}, {@code .mod} and {@code .zip}</li>
+ *   <li>{@code <module>/@v/list}</li>
+ *   <li>{@code <module>/@latest}</li>
+ *   <li>{@code /lookup/<module>@<version>}</li>
+ * </ul>
+ * Module path, version and storage key of the requested file are decoded once,
+ * when the path is parsed. {@link GoRoutes} passes the parsed path downstream with
+ * the request headers, see {@link Parsed}, so the slices of the route take it by
+ * {@link #from(String, Iterable)} instead of parsing the request line again.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class GoPath {
+
+    /**
+     * Versions directory.
+     */
+    private static final String VERSIONS = "/@v/";
+
+    /**
+     * Latest version suffix.
+     */
+    private static final String LATEST = "/@latest";
+
+    /**
+     * Versions list suffix.
+     */
+    private static final String LIST = "/@v/list";
+
+    /**
+     * Lookup prefix.
+     */
+    private static final String LOOKUP_PATH = "/lookup/";
+
+    /**
+     * Kind of the request.
+     */
+    private final GoPath.Kind type;
+
+    /**
+     * Module path.
+     */
+    private final String name;
+
+    /**
+     * Module version.
+     */
+    private final String ver;
+
+    /**
+     * Storage key of the requested file.
+     */
+    private final Key file;
+
+    /**
+     * Ctor.
+     * @param type Kind of the request
+     * @param name Module path, e.g. "example.com/foo"
+     * @param ver Module version, e.g. "v1.0.0", empty for list and latest requests
+     * @param file Storage key of the requested file
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    GoPath(final GoPath.Kind type, final String name, final String ver, final Key file) {
+        this.type = type;
+        this.name = name;
+        this.ver = ver;
+        this.file = file;
+    }
+
+    /**
+     * Kind of the request.
+     * @return Kind
+     */
+    GoPath.Kind kind() {
+        return this.type;
+    }
+
+    /**
+     * Module path without leading slash.
+     * @return Module path, e.g. "example.com/foo"
+     */
+    String module() {
+        return this.name;
+    }
+
+    /**
+     * Module version.
+     * @return Version, e.g. "v1.0.0", empty for list and latest requests
+     */
+    String version() {
+        return this.ver;
+    }
+
+    /**
+     * Storage key of the requested file.
+     * @return Key, e.g. "example.com/foo/@v/v1.0.0.zip"
+     */
+    Key key() {
+        return this.file;
+    }
+
+    /**
+     * Path of the request: the one parsed by {@link GoRoutes} if the headers carry it,
+     * otherwise the request line is parsed.
+     * @param line Request line
+     * @param headers Request headers
+     * @return Parsed path
+     */
+    static GoPath from(final String line, final Iterable<Map.Entry<String, String>> headers) {
+        final GoPath res;
+        if (headers instanceof Parsed) {
+            res = ((Parsed) headers).path;
+        } else {
+            res = GoPath.parse(new RequestLineFrom(line).uri().getPath());
+        }
+        return res;
+    }
+
+    /**
+     * Parse request path.
+     * @param path Request path without query, e.g. "/example.com/foo/@v/v1.0.0.zip"
+     * @return Parsed path, of {@link Kind#UNKNOWN} kind if it's not a protocol path
+     */
+    static GoPath parse(final String path) {
+        final GoPath res;
+        if (path.startsWith(GoPath.LOOKUP_PATH)) {
+            res = GoPath.lookup(path);
+        } else if (path.endsWith(GoPath.LATEST)) {
+            res = GoPath.module(GoPath.Kind.LATEST, path, path.length() - GoPath.LATEST.length());
+        } else if (path.endsWith(GoPath.LIST)) {
+            res = GoPath.module(GoPath.Kind.LIST, path, path.length() - GoPath.LIST.length());
+        } else {
+            res = GoPath.artifact(path);
+        }
+        return res;
+    }
+
+    /**
+     * Parse lookup path {@code /lookup/<module>@<version>}.
+     * @param path Request path
+     * @return Parsed path
+     */
+    private static GoPath lookup(final String path) {
+        final int start = GoPath.LOOKUP_PATH.length();
+        final int sep = path.lastIndexOf('@');
+        final GoPath res;
+        if (sep > start && sep < path.length() - 1 && path.indexOf('/', sep) < 0) {
+            res = new GoPath(
+                GoPath.Kind.LOOKUP, path.substring(start, sep), path.substring(sep + 1),
+                GoPath.stored(path)
+            );
+        } else {
+            res = GoPath.unknown(path);
+        }
+        return res;
+    }
+
+    /**
+     * Module path ending at given position.
+     * @param kind Kind of the request
+     * @param path Request path
+     * @param end Module path end
+     * @return Parsed path
+     */
+    private static GoPath module(final GoPath.Kind kind, final String path, final int end) {
+        final int start = GoPath.start(path);
+        final GoPath res;
+        if (end > start) {
+            res = new GoPath(kind, path.substring(start, end), "", GoPath.stored(path));
+        } else {
+            res = GoPath.unknown(path);
+        }
+        return res;
+    }
+
+    /**
+     * Parse versioned artifact path {@code <module>/@v/<version>.<ext>}.
+     * @param path Request path
+     * @return Parsed path
+     */
+    private static GoPath artifact(final String path) {
+        final GoPath.Kind kind = GoPath.Kind.byExtension(path);
+        final int start = GoPath.start(path);
+        final int dir = path.indexOf(GoPath.VERSIONS, start + 1);
+        final int ver = dir + GoPath.VERSIONS.length();
+        final int end = path.length() - kind.extension().length();
+        final GoPath res;
+        if (kind == GoPath.Kind.UNKNOWN || dir < 0 || ver >= end || path.charAt(ver) != 'v') {
+            res = GoPath.unknown(path);
+        } else {
+            res = new GoPath(
+                kind, path.substring(start, dir), path.substring(ver, end), GoPath.stored(path)
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Path which is not a part of the protocol.
+     * @param path Request path
+     * @return Parsed path without module and version
+     */
+    private static GoPath unknown(final String path) {
+        return new GoPath(GoPath.Kind.UNKNOWN, "", "", GoPath.stored(path));
+    }
+
+    /**
+     * Storage key of the requested file.
+     * @param path Request path
+     * @return Key comparable with other keys
+     */
+    private static Key stored(final String path) {
+        return new Key.From(new KeyFromPath(path).string());
+    }
+
+    /**
+     * Module path start: request paths may have leading slash.
+     * @param path Request path
+     * @return Start index
+     */
+    private static int start(final String path) {
+        final int res;
+        if (!path.isEmpty() && path.charAt(0) == '/') {
+            res = 1;
+        } else {
+            res = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Request headers carrying the parsed request path.
+     * @since 0.4
+     */
+    static final class Parsed implements Iterable<Map.Entry<String, String>> {
+
+        /**
+         * Parsed request path.
+         */
+        private final GoPath path;
+
+        /**
+         * Request headers.
+         */
+        private final Iterable<Map.Entry<String, String>> origin;
+
+        /**
+         * Ctor.
+         * @param path Parsed request path
+         * @param origin Request headers
+         */
+        Parsed(final GoPath path, final Iterable<Map.Entry<String, String>> origin) {
+            this.path = path;
+            this.origin = origin;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return this.origin.iterator();
+        }
+    }
+
+    /**
+     * Kind of Go module proxy request.
+     * @since 0.4
+     */
+    enum Kind {
+        /**
+         * Version metadata.
+         */
+        INFO(".info"),
+
+        /**
+         * Version go.mod file.
+         */
+        MOD(".mod"),
+
+        /**
+         * Version sources archive.
+         */
+        ZIP(".zip"),
+
+        /**
+         * Versions list.
+         */
+        LIST(""),
+
+        /**
+         * Latest version metadata.
+         */
+        LATEST(""),
+
+        /**
+         * Go checksum database lookup.
+         */
+        LOOKUP(""),
+
+        /**
+         * Not a protocol request.
+         */
+        UNKNOWN("");
+
+        /**
+         * Versioned artifact file extension.
+         */
+        private final String ext;
+
+        /**
+         * Ctor.
+         * @param ext Versioned artifact file extension, empty for other requests
+         */
+        Kind(final String ext) {
+            this.ext = ext;
+        }
+
+        /**
+         * Versioned artifact file extension.
+         * @return Extension, e.g. ".zip"
+         */
+        String extension() {
+            return this.ext;
+        }
+
+        /**
+         * Kind of versioned artifact by path extension.
+         * @param path Request path
+         * @return Artifact kind or {@link #UNKNOWN}
+         */
+        static GoPath.Kind byExtension(final String path) {
+            GoPath.Kind res = GoPath.Kind.UNKNOWN;
+            for (final GoPath.Kind kind : new GoPath.Kind[] {INFO, MOD, ZIP}) {
+                if (path.endsWith(kind.ext)) {
+                    res = kind;
+                    break;
+                }
+            }
+            return res;
+        }
+    }
+}
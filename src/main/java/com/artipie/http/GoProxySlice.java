@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Storage;
+import com.artipie.http.auth.Action;
+import com.artipie.http.auth.Identities;
+import com.artipie.http.auth.Permission;
+import com.artipie.http.auth.Permissions;
+import com.artipie.http.auth.SliceAuth;
+import com.artipie.http.slice.LoggingSlice;
+import com.artipie.http.slice.SliceWithHeaders;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice implementation of Go module proxy protocol which works as a pull-through
+ * cache of the upstream Go module proxy: files missing in the storage are requested
+ * from the upstream and saved to the storage while they are sent to the client,
+ * see {@link PullThroughSlice}. Requests are routed by {@link GoRoutes}, so the request
+ * path is parsed once and passed to the pull-through slices.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class GoProxySlice implements Slice {
+
+    /**
+     * Text header.
+     */
+    private static final String TEXT_PLAIN = "text/plain";
+
+    /**
+     * JSON header.
+     */
+    private static final String JSON = "application/json";
+
+    /**
+     * Origin.
+     */
+    private final Slice origin;
+
+    /**
+     * Ctor.
+     * @param upstream Upstream Go module proxy URI, e.g. "https://proxy.golang.org"
+     * @param storage Storage
+     */
+    public GoProxySlice(final URI upstream, final Storage storage) {
+        this(new UpstreamSlice(upstream), storage);
+    }
+
+    /**
+     * Ctor.
+     * @param upstream Upstream Go module proxy
+     * @param storage Storage
+     */
+    public GoProxySlice(final Slice upstream, final Storage storage) {
+        this(upstream, storage, Permissions.FREE, Identities.ANONYMOUS);
+    }
+
+    /**
+     * Ctor.
+     * @param upstream Upstream Go module proxy
+     * @param storage Storage
+     * @param perms Permissions
+     * @param users Users
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public GoProxySlice(final Slice upstream, final Storage storage, final Permissions perms,
+        final Identities users) {
+        this.origin = new LoggingSlice(
+            new GoRoutes()
+                .with(
+                    GoPath.Kind.INFO,
+                    GoProxySlice.proxy(
+                        new PullThroughSlice(upstream, storage, false), GoProxySlice.JSON,
+                        perms, users
+                    )
+                )
+                .with(
+                    GoPath.Kind.MOD,
+                    GoProxySlice.proxy(
+                        new PullThroughSlice(upstream, storage, false), GoProxySlice.TEXT_PLAIN,
+                        perms, users
+                    )
+                )
+                .with(
+                    GoPath.Kind.ZIP,
+                    GoProxySlice.proxy(
+                        new PullThroughSlice(upstream, storage, false), "application/zip",
+                        perms, users
+                    )
+                )
+                .with(
+                    GoPath.Kind.LIST,
+                    GoProxySlice.proxy(
+                        new PullThroughSlice(upstream, storage, true), GoProxySlice.TEXT_PLAIN,
+                        perms, users
+                    )
+                )
+                .with(
+                    GoPath.Kind.LATEST,
+                    GoProxySlice.proxy(
+                        new PullThroughSlice(upstream, storage, true), GoProxySlice.JSON,
+                        perms, users
+                    )
+                )
+        );
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        return this.origin.response(line, headers, body);
+    }
+
+    /**
+     * Proxy slice with content type and authorization.
+     * @param slice Pull-through slice
+     * @param type Content-type
+     * @param perms Permissions
+     * @param users Users
+     * @return Slice
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private static Slice proxy(final Slice slice, final String type,
+        final Permissions perms, final Identities users) {
+        return new SliceAuth(
+            new SliceWithHeaders(slice, new Headers.From("content-type", type)),
+            new Permission.ByName(perms, Action.Standard.READ),
+            users
+        );
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.StandardRs;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import org.reactivestreams.Publisher;
+
+/**
+ * Routes of Go module proxy protocol: the request line is parsed once and
+ * the request path is classified by {@link GoPath} in one scan, then the request
+ * is passed to the slice of its kind along with the parsed path, see {@link GoPath.Parsed}.
+ * Requests of other methods than {@code GET}, of unknown paths or kinds without route
+ * are answered with {@code 404}.
+ * @since 0.4
+ */
+final class GoRoutes implements Slice {
+
+    /**
+     * Slices by request kind.
+     */
+    private final Map<GoPath.Kind, Slice> routes;
+
+    /**
+     * Ctor.
+     */
+    GoRoutes() {
+        this(new EnumMap<>(GoPath.Kind.class));
+    }
+
+    /**
+     * Ctor.
+     * @param routes Slices by request kind
+     */
+    private GoRoutes(final Map<GoPath.Kind, Slice> routes) {
+        this.routes = routes;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RequestLineFrom request = new RequestLineFrom(line);
+        final Optional<GoPath> path;
+        if (request.method() == RqMethod.GET) {
+            path = Optional.of(GoPath.parse(request.uri().getPath()));
+        } else {
+            path = Optional.empty();
+        }
+        return path.flatMap(
+            parsed -> Optional.ofNullable(this.routes.get(parsed.kind())).map(
+                route -> route.response(line, new GoPath.Parsed(parsed, headers), body)
+            )
+        ).orElse(StandardRs.NOT_FOUND);
+    }
+
+    /**
+     * Routes with the route added.
+     * @param kind Request kind
+     * @param slice Slice serving requests of the kind
+     * @return Routes
+     */
+    GoRoutes with(final GoPath.Kind kind, final Slice slice) {
+        final Map<GoPath.Kind, Slice> copy = new EnumMap<>(GoPath.Kind.class);
+        copy.putAll(this.routes);
+        copy.put(kind, slice);
+        return new GoRoutes(copy);
+    }
+}
@@ -24,6 +24,7 @@
 package com.artipie.http;
 
 import com.artipie.asto.Storage;
+import com.artipie.goproxy.Metrics;
 import com.artipie.http.auth.Action;
 import com.artipie.http.auth.Authentication;
 import com.artipie.http.auth.BasicIdentities;
@@ -31,26 +32,18 @@ import com.artipie.http.auth.Identities;
 import com.artipie.http.auth.Permission;
 import com.artipie.http.auth.Permissions;
 import com.artipie.http.auth.SliceAuth;
-import com.artipie.http.rq.RqMethod;
-import com.artipie.http.rs.RsStatus;
-import com.artipie.http.rs.RsWithStatus;
-import com.artipie.http.rt.ByMethodsRule;
-import com.artipie.http.rt.RtRule;
-import com.artipie.http.rt.RtRulePath;
-import com.artipie.http.rt.SliceRoute;
 import com.artipie.http.slice.LoggingSlice;
-import com.artipie.http.slice.SliceDownload;
-import com.artipie.http.slice.SliceSimple;
 import com.artipie.http.slice.SliceWithHeaders;
 import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Optional;
 import org.reactivestreams.Publisher;
 
 /**
  * Slice implementation that provides HTTP API (Go module proxy protocol) for Golang repository.
  * @since 0.3
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
  */
 public final class GoSlice implements Slice {
 
@@ -59,6 +52,11 @@ public final class GoSlice implements Slice {
      */
     private static final String TEXT_PLAIN = "text/plain";
 
+    /**
+     * Cache control of versions list and latest version.
+     */
+    private static final String MAX_AGE = "public, max-age=60";
+
     /**
      * Origin.
      */
@@ -89,34 +87,138 @@ public final class GoSlice implements Slice {
      * @param users Users
      */
     public GoSlice(final Storage storage, final Permissions perms, final Identities users) {
-        this.origin = new SliceRoute(
-            GoSlice.pathGet(
-                ".+/@v/v.*\\.info",
-                GoSlice.createSlice(storage, "application/json", perms, users)
-            ),
-            GoSlice.pathGet(
-                ".+/@v/v.*\\.mod",
-                GoSlice.createSlice(storage, GoSlice.TEXT_PLAIN, perms, users)
-            ),
-            GoSlice.pathGet(
-                ".+/@v/v.*\\.zip", GoSlice.createSlice(storage, "application/zip", perms, users)
-            ),
-            GoSlice.pathGet(
-                ".+/@v/list", GoSlice.createSlice(storage, GoSlice.TEXT_PLAIN, perms, users)
-            ),
-            GoSlice.pathGet(
-                ".+/@latest",
-                new SliceAuth(
-                    new LatestSlice(storage),
-                    new Permission.ByName(perms, Action.Standard.READ), users
+        this(storage, perms, users, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param perms Permissions
+     * @param users Users
+     * @param metrics Metrics: requests, bytes served and latency per route
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public GoSlice(final Storage storage, final Permissions perms, final Identities users,
+        final Metrics metrics) {
+        this(storage, perms, users, Optional.empty(), metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param cache Cache of {@code .info}, {@code .mod} and {@code @v/list} responses
+     */
+    public GoSlice(final Storage storage, final MetadataCache cache) {
+        this(storage, Permissions.FREE, Identities.ANONYMOUS, cache);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param perms Permissions
+     * @param users Users
+     * @param cache Cache of {@code .info}, {@code .mod} and {@code @v/list} responses
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public GoSlice(final Storage storage, final Permissions perms, final Identities users,
+        final MetadataCache cache) {
+        this(storage, perms, users, cache, Metrics.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param perms Permissions
+     * @param users Users
+     * @param cache Cache of {@code .info}, {@code .mod} and {@code @v/list} responses
+     * @param metrics Metrics: requests, bytes served and latency per route, cache hits
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public GoSlice(final Storage storage, final Permissions perms, final Identities users,
+        final MetadataCache cache, final Metrics metrics) {
+        this(storage, perms, users, Optional.of(cache), metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param perms Permissions
+     * @param users Users
+     * @param cache Metadata cache if enabled
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private GoSlice(final Storage storage, final Permissions perms, final Identities users,
+        final Optional<MetadataCache> cache, final Metrics metrics) {
+        this.origin = new LoggingSlice(
+            new GoRoutes()
+                .with(
+                    GoPath.Kind.INFO,
+                    new MeteredSlice(
+                        GoSlice.createSlice(
+                            new ImmutableSlice(
+                                storage,
+                                GoSlice.cached(GoSlice.indexed(storage), cache, metrics)
+                            ),
+                            "application/json", perms, users
+                        ),
+                        "info", metrics
+                    )
                 )
-            ),
-            new RtRulePath(
-                RtRule.FALLBACK,
-                new SliceSimple(
-                    new RsWithStatus(RsStatus.NOT_FOUND)
+                .with(
+                    GoPath.Kind.MOD,
+                    new MeteredSlice(
+                        GoSlice.createSlice(
+                            new ImmutableSlice(
+                                storage,
+                                GoSlice.cached(GoSlice.download(storage), cache, metrics)
+                            ),
+                            GoSlice.TEXT_PLAIN, perms, users
+                        ),
+                        "mod", metrics
+                    )
+                )
+                .with(
+                    GoPath.Kind.ZIP,
+                    new MeteredSlice(
+                        GoSlice.createSlice(
+                            new SliceWithHeaders(
+                                new ImmutableSlice(storage, GoSlice.archives(storage)),
+                                new Headers.From("Accept-Ranges", "none")
+                            ),
+                            "application/zip", perms, users
+                        ),
+                        "zip", metrics
+                    )
+                )
+                .with(
+                    GoPath.Kind.LIST,
+                    new MeteredSlice(
+                        GoSlice.createSlice(
+                            GoSlice.mutable(
+                                GoSlice.cached(GoSlice.indexed(storage), cache, metrics)
+                            ),
+                            GoSlice.TEXT_PLAIN, perms, users
+                        ),
+                        "list", metrics
+                    )
+                )
+                .with(
+                    GoPath.Kind.LATEST,
+                    new MeteredSlice(
+                        new SliceAuth(
+                            GoSlice.mutable(new IndexSlice(storage, new LatestSlice(storage))),
+                            new Permission.ByName(perms, Action.Standard.READ), users
+                        ),
+                        "latest", metrics
+                    )
+                )
+                .with(
+                    GoPath.Kind.LOOKUP,
+                    GoSlice.createSlice(
+                        new LookupSlice(storage), GoSlice.TEXT_PLAIN, perms, users
+                    )
                 )
-            )
         );
     }
 
@@ -128,39 +230,83 @@ public final class GoSlice implements Slice {
     }
 
     /**
-     * Creates slice instance.
+     * Download slice, cached if cache is enabled.
+     * @param download Download slice
+     * @param cache Metadata cache if enabled
+     * @param metrics Metrics
+     * @return Slice
+     */
+    private static Slice cached(final Slice download, final Optional<MetadataCache> cache,
+        final Metrics metrics) {
+        return cache.<Slice>map(enabled -> new CachedSlice(download, enabled, metrics))
+            .orElse(download);
+    }
+
+    /**
+     * Download slice of metadata rendered from the module versions index if it exists,
+     * concurrent reads of small metadata files which are not indexed are coalesced.
      * @param storage Storage
+     * @return Slice
+     */
+    private static Slice indexed(final Storage storage) {
+        return new IndexSlice(storage, new CoalescingSlice(GoSlice.download(storage)));
+    }
+
+    /**
+     * Download slice of storage files, bodies are streamed to the client
+     * as it reads them, concurrent reads of the same file are shared.
+     * @param storage Storage
+     * @return Slice
+     */
+    private static Slice download(final Storage storage) {
+        return new SharedDownload(storage);
+    }
+
+    /**
+     * Download slice of module archives: {@link LocalStorage} files are served
+     * from mapped regions, other storages are read by {@link SharedDownload}.
+     * @param storage Storage
+     * @return Slice
+     */
+    private static Slice archives(final Storage storage) {
+        final Slice res;
+        if (storage instanceof LocalStorage) {
+            res = new FileSlice((LocalStorage) storage);
+        } else {
+            res = GoSlice.download(storage);
+        }
+        return res;
+    }
+
+    /**
+     * Slice serving mutable metadata, which may be cached for a short time only.
+     * @param origin Origin slice
+     * @return Slice
+     */
+    private static Slice mutable(final Slice origin) {
+        return new SliceWithHeaders(
+            origin, new Headers.From("Cache-Control", GoSlice.MAX_AGE)
+        );
+    }
+
+    /**
+     * Creates slice instance.
+     * @param download Download slice
      * @param type Content-type
      * @param perms Permissions
      * @param users Users
      * @return Slice
      * @checkstyle ParameterNumberCheck (10 lines)
      */
-    private static Slice createSlice(final Storage storage, final String type,
+    private static Slice createSlice(final Slice download, final String type,
         final Permissions perms, final Identities users) {
         return new SliceAuth(
             new SliceWithHeaders(
-                new SliceDownload(storage),
+                download,
                 new Headers.From("content-type", type)
             ),
             new Permission.ByName(perms, Action.Standard.READ),
             users
         );
     }
-
-    /**
-     * This method simply encapsulates all the RtRule instantiations.
-     * @param pattern Route pattern
-     * @param slice Slice implementation
-     * @return Path route slice
-     */
-    private static RtRulePath pathGet(final String pattern, final Slice slice) {
-        return new RtRulePath(
-            new RtRule.All(
-                new RtRule.ByPath(Pattern.compile(pattern)),
-                new ByMethodsRule(RqMethod.GET)
-            ),
-            new LoggingSlice(slice)
-        );
-    }
 }
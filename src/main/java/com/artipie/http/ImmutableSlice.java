@@ -0,0 +1,337 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.goproxy.Goproxy;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which serves immutable versioned artifacts ({@code .info}, {@code .mod}
+ * and {@code .zip}) with HTTP caching headers.
+ * <p>
+ * Successful responses are marked as immutable. If the artifact was published
+ * by {@link Goproxy}, its checksum is sent as strong entity tag and the version
+ * time from {@code .info} file as last modification time; conditional requests
+ * matching them get {@code 304 Not Modified} and the artifact is not read.
+ * <p>
+ * Validators of published artifacts never change, so they are kept in memory
+ * once read: repeated requests for the artifact don't touch the storage before
+ * the origin is asked, which may answer from memory too, e.g. {@link CachedSlice}.
+ * Artifacts without checksum are not remembered, they may be published later.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class ImmutableSlice implements Slice {
+
+    /**
+     * Cache control of immutable artifacts.
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * HTTP date format.
+     */
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+        .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+        .withZone(ZoneOffset.UTC);
+
+    /**
+     * Version time in {@code .info} file.
+     */
+    private static final Pattern TIME = Pattern.compile("\"Time\"\\s*:\\s*\"([^\"]+)\"");
+
+    /**
+     * Max number of artifacts which validators are kept in memory.
+     */
+    private static final int CAPACITY = 10_000;
+
+    /**
+     * Time to keep validators in memory.
+     */
+    private static final Duration TTL = Duration.ofHours(1);
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Validators of published artifacts by key.
+     */
+    private final ExpiringCache<String, Validators> known;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param origin Origin slice serving artifacts
+     */
+    ImmutableSlice(final Storage storage, final Slice origin) {
+        this.storage = storage;
+        this.origin = origin;
+        this.known = new ExpiringCache<>(
+            ImmutableSlice.CAPACITY, ImmutableSlice.TTL, Clock.systemUTC()
+        );
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Key key = GoPath.from(line, headers).key();
+        final Optional<Validators> cached = this.known.cached(key.string());
+        final Response res;
+        if (cached.isPresent()) {
+            res = this.respond(cached.get(), line, headers, body);
+        } else {
+            res = new AsyncResponse(
+                this.validators(key).thenApply(
+                    validators -> this.respond(validators, line, headers, body)
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Read validators of the artifact, remembering them if it's published.
+     * @param key Artifact key
+     * @return Validators
+     */
+    private CompletionStage<Validators> validators(final Key key) {
+        return new TextFile(
+            this.storage, new Key.From(String.format("%s%s", key.string(), Goproxy.CHECKSUM))
+        ).text().thenCompose(
+            checksum -> {
+                final CompletionStage<Validators> res;
+                if (checksum.isPresent()) {
+                    res = this.modified(key).thenApply(
+                        time -> {
+                            final Validators validators = new Validators(
+                                Optional.of(String.format("\"%s\"", checksum.get().trim())),
+                                time
+                            );
+                            this.known.put(key.string(), validators);
+                            return validators;
+                        }
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture(
+                        new Validators(Optional.empty(), Optional.empty())
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Respond to the request.
+     * @param validators Artifact validators
+     * @param line Request line
+     * @param headers Request headers
+     * @param body Request body
+     * @return Response
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Response respond(final Validators validators, final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final Response res;
+        if (validators.fresh(headers)) {
+            res = new RsWithHeaders(
+                new RsWithStatus(RsStatus.NOT_MODIFIED), validators.headers()
+            );
+        } else {
+            final Response rsp = this.origin.response(line, headers, body);
+            res = connection -> rsp.send(
+                (status, hdrs, content) -> {
+                    final Headers sent;
+                    if (status == RsStatus.OK) {
+                        sent = new Headers.From(hdrs, validators.headers());
+                    } else {
+                        sent = hdrs;
+                    }
+                    return connection.accept(status, sent, content);
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Version time of the artifact from {@code .info} file of the version.
+     * @param key Artifact key
+     * @return Time if known
+     */
+    private CompletionStage<Optional<Instant>> modified(final Key key) {
+        final String name = key.string();
+        return new TextFile(
+            this.storage,
+            new Key.From(String.format("%s.info", name.substring(0, name.lastIndexOf('.'))))
+        ).text().thenApply(
+            info -> info.flatMap(
+                json -> {
+                    final Matcher matcher = ImmutableSlice.TIME.matcher(json);
+                    Optional<Instant> time = Optional.empty();
+                    if (matcher.find()) {
+                        try {
+                            time = Optional.of(Instant.parse(matcher.group(1)));
+                        } catch (final DateTimeParseException ex) {
+                            time = Optional.empty();
+                        }
+                    }
+                    return time;
+                }
+            )
+        );
+    }
+
+    /**
+     * Artifact validators.
+     * @since 0.4
+     */
+    private static final class Validators {
+
+        /**
+         * Entity tag.
+         */
+        private final Optional<String> etag;
+
+        /**
+         * Last modification time.
+         */
+        private final Optional<Instant> time;
+
+        /**
+         * Ctor.
+         * @param etag Entity tag
+         * @param time Last modification time
+         */
+        Validators(final Optional<String> etag, final Optional<Instant> time) {
+            this.etag = etag;
+            this.time = time;
+        }
+
+        /**
+         * Response headers.
+         * @return Headers
+         */
+        Headers headers() {
+            final List<Map.Entry<String, String>> res = new ArrayList<>(3);
+            res.add(new Header("Cache-Control", ImmutableSlice.IMMUTABLE));
+            this.etag.ifPresent(tag -> res.add(new Header("ETag", tag)));
+            this.time.ifPresent(
+                val -> res.add(new Header("Last-Modified", ImmutableSlice.HTTP_DATE.format(val)))
+            );
+            return new Headers.From(res);
+        }
+
+        /**
+         * Is client copy still fresh according to request conditions.
+         * {@code If-Modified-Since} is ignored if {@code If-None-Match} is present.
+         * @param headers Request headers
+         * @return True if it's not modified
+         */
+        boolean fresh(final Iterable<Map.Entry<String, String>> headers) {
+            final List<String> tags = new RqHeaders(headers, "If-None-Match");
+            final boolean res;
+            if (tags.isEmpty()) {
+                res = this.unmodified(new RqHeaders(headers, "If-Modified-Since"));
+            } else {
+                res = this.matches(tags);
+            }
+            return res;
+        }
+
+        /**
+         * Does entity tag match one of {@code If-None-Match} tags.
+         * @param tags Header values
+         * @return True if matches
+         */
+        private boolean matches(final List<String> tags) {
+            boolean res = false;
+            if (this.etag.isPresent()) {
+                for (final String value : tags) {
+                    for (final String item : value.split(",")) {
+                        final String tag = item.trim();
+                        res = res || "*".equals(tag) || this.etag.get().equals(tag)
+                            || this.etag.get().equals(tag.replaceFirst("^W/", ""));
+                    }
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Is artifact not modified since {@code If-Modified-Since} time.
+         * @param since Header values
+         * @return True if not modified
+         */
+        private boolean unmodified(final List<String> since) {
+            boolean res = false;
+            if (this.time.isPresent() && !since.isEmpty()) {
+                try {
+                    res = !this.time.get().truncatedTo(ChronoUnit.SECONDS).isAfter(
+                        ZonedDateTime.parse(
+                            since.get(0).trim(), DateTimeFormatter.RFC_1123_DATE_TIME
+                        ).toInstant()
+                    );
+                } catch (final DateTimeParseException ex) {
+                    res = false;
+                }
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.goproxy.ModuleIndex;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which renders {@code @v/list}, {@code @latest} and {@code .info} responses
+ * from the module versions index, see {@link ModuleIndex}: one small file is read
+ * instead of the list, the latest version index or the info file. Other requests,
+ * modules without index and versions which are not indexed are passed to the origin.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class IndexSlice implements Slice {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param origin Origin slice
+     */
+    IndexSlice(final Storage storage, final Slice origin) {
+        this.storage = storage;
+        this.origin = origin;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final GoPath path = GoPath.from(line, headers);
+        return IndexSlice.renderer(path).<Response>map(
+            render -> new AsyncResponse(
+                this.index(path.module()).thenApply(
+                    index -> index.flatMap(render).orElseGet(
+                        () -> this.origin.response(line, headers, body)
+                    )
+                )
+            )
+        ).orElseGet(() -> this.origin.response(line, headers, body));
+    }
+
+    /**
+     * Read module index.
+     * @param module Module path
+     * @return Index if it exists
+     */
+    private CompletionStage<Optional<ModuleIndex>> index(final String module) {
+        return this.storage.value(new Key.From(String.format("%s/%s", module, ModuleIndex.FILE)))
+            .<CompletionStage<Optional<ModuleIndex>>>handle(
+                (content, err) -> {
+                    final CompletionStage<Optional<ModuleIndex>> res;
+                    if (err == null) {
+                        res = new PublisherAs(content).bytes().thenApply(
+                            bytes -> Optional.of(new ModuleIndex(ByteBuffer.wrap(bytes)))
+                        );
+                    } else if (err instanceof ValueNotFoundException
+                        || err.getCause() instanceof ValueNotFoundException) {
+                        res = CompletableFuture.completedFuture(Optional.empty());
+                    } else {
+                        final CompletableFuture<Optional<ModuleIndex>> failed =
+                            new CompletableFuture<>();
+                        failed.completeExceptionally(err);
+                        res = failed;
+                    }
+                    return res;
+                }
+            ).thenCompose(Function.identity());
+    }
+
+    /**
+     * Renderer of the response from the index.
+     * @param path Request path
+     * @return Renderer if the response may be rendered from the index
+     */
+    private static Optional<Function<ModuleIndex, Optional<Response>>> renderer(
+        final GoPath path) {
+        final Optional<Function<ModuleIndex, Optional<Response>>> res;
+        switch (path.kind()) {
+            case LIST:
+                res = Optional.of(index -> Optional.of(IndexSlice.success(index.list())));
+                break;
+            case LATEST:
+                res = Optional.of(
+                    index -> index.latest().map(
+                        info -> new RsWithHeaders(
+                            IndexSlice.success(info), "content-type", "application/json"
+                        )
+                    )
+                );
+                break;
+            case INFO:
+                res = Optional.of(index -> index.info(path.version()).map(IndexSlice::success));
+                break;
+            default:
+                res = Optional.empty();
+                break;
+        }
+        return res;
+    }
+
+    /**
+     * Successful response with text body.
+     * @param text Body
+     * @return Response
+     */
+    private static Response success(final String text) {
+        return new RsWithStatus(new RsWithBody(text, StandardCharsets.UTF_8), RsStatus.OK);
+    }
+}
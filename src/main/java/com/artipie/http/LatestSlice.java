@@ -23,33 +23,46 @@
  */
 package com.artipie.http;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.goproxy.GoVersion;
 import com.artipie.http.async.AsyncResponse;
-import com.artipie.http.rq.RequestLineFrom;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithBody;
 import com.artipie.http.rs.RsWithHeaders;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.rs.StandardRs;
 import com.artipie.http.slice.KeyFromPath;
-import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import org.reactivestreams.Publisher;
 
 /**
  * Go mod slice: this slice returns json-formatted metadata about go module as
  * described in "JSON-formatted metadata(.info file body) about the latest known version"
  * section of readme.
+ * <p>
+ * The metadata is read from the latest version index {@code <module>/@latest}
+ * maintained by {@link com.artipie.goproxy.Goproxy}. Modules published before the
+ * index was introduced have no index: for them the module directory is listed
+ * and the latest version is chosen by {@link GoVersion#LATEST}.
  * @since 0.3
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class LatestSlice implements Slice {
 
+    /**
+     * Info file extension.
+     */
+    private static final String EXT = ".info";
+
     /**
      * Storage.
      */
@@ -67,49 +80,95 @@ public final class LatestSlice implements Slice {
     public Response response(
         final String line, final Iterable<Map.Entry<String, String>> headers,
         final Publisher<ByteBuffer> body) {
-        return new AsyncResponse(
-            CompletableFuture.supplyAsync(
-                () -> LatestSlice.normalized(line)
-            ).thenCompose(
-                path -> this.storage.list(new KeyFromPath(path)).thenCompose(this::resp)
-            )
-        );
+        return new AsyncResponse(this.indexed(GoPath.from(line, headers).key()));
+    }
+
+    /**
+     * Responds with the latest version index content, if the index exists.
+     * @param key Requested key, e.g. "example.com/foo/@latest"
+     * @return Response
+     */
+    private CompletableFuture<Response> indexed(final Key key) {
+        return this.storage.value(key).<CompletableFuture<Response>>handle(
+            (content, err) -> {
+                final CompletableFuture<Response> res;
+                if (err == null) {
+                    res = CompletableFuture.completedFuture(LatestSlice.info(content));
+                } else if (LatestSlice.notFound(err)) {
+                    res = this.storage.list(new KeyFromPath(LatestSlice.normalized(key.string())))
+                        .thenCompose(this::resp);
+                } else {
+                    res = new CompletableFuture<>();
+                    res.completeExceptionally(err);
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
     }
 
     /**
      * Replaces the word latest if it is the last part of the URI path, by v. Then returns the path.
-     * @param line Received request line
+     * @param path Request path
      * @return A URI path with replaced latest.
      */
-    private static String normalized(final String line) {
-        final URI received = new RequestLineFrom(line).uri();
-        String path = received.getPath();
+    private static String normalized(final String path) {
+        String res = path;
         final String latest = "latest";
-        if (path.endsWith(latest)) {
-            path = path.substring(0, path.lastIndexOf(latest)).concat("v");
+        if (res.endsWith(latest)) {
+            res = res.substring(0, res.lastIndexOf(latest)).concat("v");
         }
-        return path;
+        return res;
     }
 
     /**
-     * Composes response. It filters .info files from module directory, chooses the greatest
+     * Composes response. It filters .info files from module directory, chooses the latest
      * version and returns content from the .info file.
      * @param module Module file names list from repository
      * @return Response
      */
     private CompletableFuture<Response> resp(final Collection<Key> module) {
         final Optional<String> info = module.stream().map(Key::string)
-            .filter(item -> item.endsWith("info"))
-            .max(Comparator.naturalOrder());
+            .filter(item -> item.endsWith(LatestSlice.EXT))
+            .max(Comparator.comparing(LatestSlice::version, GoVersion.LATEST));
         final CompletableFuture<Response> res;
         if (info.isPresent()) {
-            res = this.storage.value(new KeyFromPath(info.get()))
-                .thenApply(RsWithBody::new)
-                .thenApply(rsp -> new RsWithHeaders(rsp, "content-type", "application/json"))
-                .thenApply(rsp -> new RsWithStatus(rsp, RsStatus.OK));
+            res = this.storage.value(new KeyFromPath(info.get())).thenApply(LatestSlice::info);
         } else {
             res = CompletableFuture.completedFuture(StandardRs.NOT_FOUND);
         }
         return res;
     }
+
+    /**
+     * Version of the info file.
+     * @param info Info file key, e.g. "example.com/foo/@v/v1.0.0.info"
+     * @return Version
+     */
+    private static GoVersion version(final String info) {
+        return new GoVersion(
+            info.substring(info.lastIndexOf('/') + 1, info.length() - LatestSlice.EXT.length())
+        );
+    }
+
+    /**
+     * Info response.
+     * @param content Info file content
+     * @return Response
+     */
+    private static Response info(final Content content) {
+        return new RsWithStatus(
+            new RsWithHeaders(new RsWithBody(content), "content-type", "application/json"),
+            RsStatus.OK
+        );
+    }
+
+    /**
+     * Is this error caused by missing value.
+     * @param err Error
+     * @return True if value not found
+     */
+    private static boolean notFound(final Throwable err) {
+        return err instanceof ValueNotFoundException
+            || err.getCause() instanceof ValueNotFoundException;
+    }
 }
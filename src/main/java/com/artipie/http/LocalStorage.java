@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * File system storage which exposes its directory: {@link GoSlice} detects it
+ * and serves module archives right from the files, see {@link FileSlice}.
+ * Storage operations are delegated to {@link FileStorage}.
+ * @since 0.4
+ */
+public final class LocalStorage implements Storage {
+
+    /**
+     * Storage directory.
+     */
+    private final Path dir;
+
+    /**
+     * Origin storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Scheduler of blocking file checks and mappings.
+     */
+    private final Scheduler blocking;
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     */
+    public LocalStorage(final Path dir) {
+        this(dir, Schedulers.io());
+    }
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     * @param executor Executor of blocking file checks and mappings of served archives,
+     *  bounded one to limit concurrent file system calls, e.g. {@link MeteredExecutor}
+     *  of fixed thread pool
+     */
+    public LocalStorage(final Path dir, final Executor executor) {
+        this(dir, Schedulers.from(executor));
+    }
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     * @param scheduler Scheduler of blocking file checks and mappings
+     */
+    private LocalStorage(final Path dir, final Scheduler scheduler) {
+        this.dir = dir;
+        this.origin = new FileStorage(dir);
+        this.blocking = scheduler;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        return this.origin.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+        return this.origin.list(prefix);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.origin.save(key, content);
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        return this.origin.move(source, destination);
+    }
+
+    @Override
+    public CompletableFuture<Long> size(final Key key) {
+        return this.origin.size(key);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        return this.origin.value(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        return this.origin.delete(key);
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(final Key key,
+        final Function<Storage, CompletionStage<T>> operation) {
+        return this.origin.exclusively(key, operation);
+    }
+
+    /**
+     * Storage directory.
+     * @return Directory
+     */
+    Path directory() {
+        return this.dir;
+    }
+
+    /**
+     * Scheduler of blocking file checks and mappings of served files.
+     * @return Scheduler
+     */
+    Scheduler scheduler() {
+        return this.blocking;
+    }
+}
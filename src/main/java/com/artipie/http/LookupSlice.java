@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.goproxy.DirHash;
+import com.artipie.goproxy.Goproxy;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.StandardRs;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Checksum database style lookup of module version hashes:
+ * {@code GET /lookup/<module>@<version>} responds with {@code go.sum} lines
+ * of the module archive and its {@code go.mod}.
+ * <p>
+ * Hashes are saved by {@link Goproxy} when the version is published, so
+ * nothing is read but two small files. The response has no signed tree note,
+ * as the repository has no checksum database key, so it's meant for
+ * verification of private modules against the repository itself.
+ * @since 0.4
+ */
+final class LookupSlice implements Slice {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    LookupSlice(final Storage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final GoPath path = GoPath.from(line, headers);
+        final Response res;
+        if (path.kind() == GoPath.Kind.LOOKUP) {
+            final String module = path.module();
+            final String version = path.version();
+            final String prefix = String.format("%s/@v/%s", module, version);
+            res = new AsyncResponse(
+                new TextFile(
+                    this.storage, new Key.From(String.format("%s%s", prefix, Goproxy.ZIPHASH))
+                ).text().thenCombine(
+                    new TextFile(
+                        this.storage,
+                        new Key.From(String.format("%s.mod%s", prefix, Goproxy.CHECKSUM))
+                    ).text(),
+                    (zip, mod) -> zip.flatMap(
+                        archive -> mod.<Response>map(
+                            sha -> new RsWithBody(
+                                String.format(
+                                    "%1$s %2$s %3$s\n%1$s %2$s/go.mod %4$s\n",
+                                    module, version, archive.trim(),
+                                    new DirHash().with("go.mod", sha.trim()).value()
+                                ),
+                                StandardCharsets.UTF_8
+                            )
+                        )
+                    ).orElse(StandardRs.NOT_FOUND)
+                )
+            );
+        } else {
+            res = StandardRs.NOT_FOUND;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.UpdateListener;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory cache of small metadata responses: {@code .info}, {@code .mod}
+ * and {@code @v/list} files.
+ * <p>
+ * The cache is bounded by the total size of cached bodies: least recently used
+ * entries are evicted to fit a new one. Entries expire after TTL. Pass the cache
+ * to {@link com.artipie.goproxy.Goproxy} as {@link UpdateListener} to drop cached
+ * metadata of the module as soon as new version is published.
+ * @since 0.4
+ */
+public final class MetadataCache implements UpdateListener {
+
+    /**
+     * Max total size of cached entries in bytes.
+     */
+    private final long capacity;
+
+    /**
+     * Time to live of the entry.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Cached entries in access order.
+     */
+    private final Map<String, Item> items;
+
+    /**
+     * Lock for entries, size and generation.
+     */
+    private final Object lock;
+
+    /**
+     * Total size of cached entries.
+     */
+    private long size;
+
+    /**
+     * Invalidations count.
+     */
+    private long version;
+
+    /**
+     * Ctor.
+     * @param capacity Max total size of cached entries in bytes
+     * @param ttl Time to live of the entry
+     */
+    public MetadataCache(final long capacity, final Duration ttl) {
+        this(capacity, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Max total size of cached entries in bytes
+     * @param ttl Time to live of the entry
+     * @param clock Clock
+     */
+    public MetadataCache(final long capacity, final Duration ttl, final Clock clock) {
+        this.capacity = capacity;
+        this.ttl = ttl;
+        this.clock = clock;
+        // @checkstyle MagicNumberCheck (1 line)
+        this.items = new LinkedHashMap<>(16, 0.75f, true);
+        this.lock = new Object();
+    }
+
+    @Override
+    public void updated(final String module) {
+        final String prefix = String.format("%s/", module);
+        synchronized (this.lock) {
+            this.version += 1;
+            final Iterator<Map.Entry<String, Item>> iter = this.items.entrySet().iterator();
+            while (iter.hasNext()) {
+                final Map.Entry<String, Item> entry = iter.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    this.size -= entry.getValue().weight;
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Current generation: it changes on every invalidation.
+     * @return Generation
+     */
+    long generation() {
+        synchronized (this.lock) {
+            return this.version;
+        }
+    }
+
+    /**
+     * Cached item.
+     * @param key Key
+     * @return Item if it's cached and not expired
+     */
+    Optional<Item> get(final String key) {
+        final Instant now = this.clock.instant();
+        synchronized (this.lock) {
+            final Item item = this.items.get(key);
+            final Optional<Item> res;
+            if (item == null) {
+                res = Optional.empty();
+            } else if (now.isBefore(item.expires)) {
+                res = Optional.of(item);
+            } else {
+                this.items.remove(key);
+                this.size -= item.weight;
+                res = Optional.empty();
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Cache an item, unless cache was invalidated since the item was loaded
+     * or the item is larger than the cache.
+     * @param key Key
+     * @param loaded Generation the item was loaded in
+     * @param headers Response headers
+     * @param body Response body
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void put(final String key, final long loaded,
+        final Iterable<Map.Entry<String, String>> headers, final byte[] body) {
+        final Item item = new Item(
+            key, headers, body, this.clock.instant().plus(this.ttl)
+        );
+        synchronized (this.lock) {
+            if (loaded == this.version && item.weight <= this.capacity) {
+                final Item old = this.items.put(key, item);
+                if (old != null) {
+                    this.size -= old.weight;
+                }
+                this.size += item.weight;
+                final Iterator<Item> iter = this.items.values().iterator();
+                while (this.size > this.capacity) {
+                    this.size -= iter.next().weight;
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Cached response.
+     * @since 0.4
+     */
+    static final class Item {
+
+        /**
+         * Response headers.
+         */
+        private final List<Map.Entry<String, String>> fields;
+
+        /**
+         * Response body.
+         */
+        private final byte[] content;
+
+        /**
+         * Expiration time.
+         */
+        private final Instant expires;
+
+        /**
+         * Size of the item.
+         */
+        private final long weight;
+
+        /**
+         * Ctor.
+         * @param key Key
+         * @param headers Response headers
+         * @param body Response body
+         * @param expires Expiration time
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Item(final String key, final Iterable<Map.Entry<String, String>> headers,
+            final byte[] body, final Instant expires) {
+            this.fields = Item.copy(headers);
+            this.content = Arrays.copyOf(body, body.length);
+            this.expires = expires;
+            this.weight = Item.measure(key, this.fields, body);
+        }
+
+        /**
+         * Response headers.
+         * @return Headers
+         */
+        Iterable<Map.Entry<String, String>> headers() {
+            return Collections.unmodifiableList(this.fields);
+        }
+
+        /**
+         * Response body.
+         * @return Read-only body buffer
+         */
+        ByteBuffer body() {
+            return ByteBuffer.wrap(this.content).asReadOnlyBuffer();
+        }
+
+        /**
+         * Copy headers.
+         * @param headers Headers
+         * @return Headers list
+         */
+        private static List<Map.Entry<String, String>> copy(
+            final Iterable<Map.Entry<String, String>> headers) {
+            final List<Map.Entry<String, String>> res = new ArrayList<>(1);
+            for (final Map.Entry<String, String> header : headers) {
+                res.add(new AbstractMap.SimpleImmutableEntry<>(header));
+            }
+            return res;
+        }
+
+        /**
+         * Approximate size of the item.
+         * @param key Key
+         * @param headers Headers
+         * @param body Body
+         * @return Size in bytes
+         */
+        private static long measure(final String key,
+            final Iterable<Map.Entry<String, String>> headers, final byte[] body) {
+            long res = key.length() + body.length;
+            for (final Map.Entry<String, String> header : headers) {
+                res += header.getKey().length() + header.getValue().length();
+            }
+            return res;
+        }
+    }
+}
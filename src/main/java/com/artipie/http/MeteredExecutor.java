@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.Metrics;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor which measures tasks of the origin executor: counts submitted and
+ * rejected tasks ({@code executor.<name>.tasks} and {@code executor.<name>.rejected}
+ * counters), records the time tasks wait in the queue and run
+ * ({@code executor.<name>.wait} and {@code executor.<name>.run} timers).
+ * @since 0.4
+ */
+public final class MeteredExecutor implements Executor {
+
+    /**
+     * Origin executor.
+     */
+    private final Executor origin;
+
+    /**
+     * Submitted tasks counter name.
+     */
+    private final String tasks;
+
+    /**
+     * Rejected tasks counter name.
+     */
+    private final String rejected;
+
+    /**
+     * Queue wait timer name.
+     */
+    private final String waiting;
+
+    /**
+     * Run timer name.
+     */
+    private final String running;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Origin executor, bounded one, e.g. fixed thread pool
+     * @param name Executor name, e.g. "upstream"
+     * @param metrics Metrics
+     */
+    public MeteredExecutor(final Executor origin, final String name, final Metrics metrics) {
+        this.origin = origin;
+        this.tasks = MeteredExecutor.metric(name, "tasks");
+        this.rejected = MeteredExecutor.metric(name, "rejected");
+        this.waiting = MeteredExecutor.metric(name, "wait");
+        this.running = MeteredExecutor.metric(name, "run");
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final long submitted = System.nanoTime();
+        this.metrics.add(this.tasks, 1);
+        try {
+            this.origin.execute(
+                () -> {
+                    final long start = System.nanoTime();
+                    this.metrics.record(this.waiting, start - submitted);
+                    try {
+                        task.run();
+                    } finally {
+                        this.metrics.record(this.running, System.nanoTime() - start);
+                    }
+                }
+            );
+        } catch (final RejectedExecutionException ex) {
+            this.metrics.add(this.rejected, 1);
+            throw ex;
+        }
+    }
+
+    /**
+     * Metric name.
+     * @param name Executor name
+     * @param metric Metric of executor
+     * @return Full metric name, e.g. "executor.upstream.wait"
+     */
+    private static String metric(final String name, final String metric) {
+        return String.format("executor.%s.%s", name, metric);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.Metrics;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which measures requests of the route: counts them and bytes served
+ * ({@code http.requests.<route>} and {@code http.bytes.<route>} counters)
+ * and records the time from the request to the end of the response body
+ * ({@code http.latency.<route>} timer).
+ * @since 0.4
+ */
+final class MeteredSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Requests counter name.
+     */
+    private final String requests;
+
+    /**
+     * Bytes counter name.
+     */
+    private final String bytes;
+
+    /**
+     * Latency timer name.
+     */
+    private final String latency;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param route Route name, e.g. "zip"
+     * @param metrics Metrics
+     */
+    MeteredSlice(final Slice origin, final String route, final Metrics metrics) {
+        this.origin = origin;
+        this.requests = String.format("http.requests.%s", route);
+        this.bytes = String.format("http.bytes.%s", route);
+        this.latency = String.format("http.latency.%s", route);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final long start = System.nanoTime();
+        this.metrics.add(this.requests, 1);
+        final Response response = this.origin.response(line, headers, body);
+        return connection -> response.send(
+            (status, hdrs, content) -> connection.accept(
+                status, hdrs,
+                Flowable.fromPublisher(content)
+                    .doOnNext(buf -> this.metrics.add(this.bytes, buf.remaining()))
+                    .doFinally(
+                        () -> this.metrics.record(this.latency, System.nanoTime() - start)
+                    )
+            )
+        );
+    }
+}
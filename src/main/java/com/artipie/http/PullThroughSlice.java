@@ -0,0 +1,433 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which serves files from the storage, pulling missing files from the upstream.
+ * <p>
+ * Successful upstream response is streamed to the client and saved to the storage
+ * at the same time, the file is saved only if the client reads the body completely:
+ * if reading is cancelled or fails, storage save fails too.
+ * Immutable files (module versions) are served from the storage if they exist there,
+ * mutable ones (versions list and latest version) are always requested from the
+ * upstream first, stored copy is served only if the upstream is not available.
+ * Concurrent requests for the same file are coalesced: only the first one goes
+ * to the upstream, others wait for it to finish and are served from the storage.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class PullThroughSlice implements Slice {
+
+    /**
+     * Content length header name.
+     */
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    /**
+     * Upstream.
+     */
+    private final Slice upstream;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Should the file be requested from the upstream even if it's stored.
+     */
+    private final boolean mutable;
+
+    /**
+     * Pulls in flight.
+     */
+    private final SingleFlight<Key, Void> flights;
+
+    /**
+     * Ctor.
+     * @param upstream Upstream
+     * @param storage Storage
+     * @param mutable Should the file be requested from the upstream even if it's stored
+     */
+    PullThroughSlice(final Slice upstream, final Storage storage, final boolean mutable) {
+        this.upstream = upstream;
+        this.storage = storage;
+        this.mutable = mutable;
+        this.flights = new SingleFlight<>();
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Key key = GoPath.from(line, headers).key();
+        return connection -> {
+            final CompletionStage<Void> res;
+            if (this.mutable) {
+                res = this.pull(line, key, connection);
+            } else {
+                res = this.storage.exists(key).thenCompose(
+                    exists -> {
+                        final CompletionStage<Void> local;
+                        if (exists) {
+                            local = this.local(key, connection);
+                        } else {
+                            local = this.pull(line, key, connection);
+                        }
+                        return local;
+                    }
+                );
+            }
+            return res;
+        };
+    }
+
+    /**
+     * Pull the file from the upstream or join the pull which is in flight:
+     * concurrent requests for the same file wait until the first one stores it
+     * and then are served from the storage.
+     * @param line Request line
+     * @param key File key
+     * @param connection Connection
+     * @return Completion
+     */
+    private CompletionStage<Void> pull(final String line, final Key key,
+        final Connection connection) {
+        final AtomicBoolean leading = new AtomicBoolean();
+        final CompletableFuture<Void> sent = new CompletableFuture<>();
+        final CompletionStage<Void> flight = this.flights.join(
+            key,
+            land -> {
+                leading.set(true);
+                final CompletableFuture<Void> stored = new CompletableFuture<>();
+                this.lead(line, key, connection, stored).whenComplete(
+                    (nothing, err) -> {
+                        if (err == null) {
+                            sent.complete(nothing);
+                        } else {
+                            stored.complete(null);
+                            sent.completeExceptionally(err);
+                        }
+                    }
+                );
+                return stored.whenComplete((nothing, err) -> land.run());
+            }
+        );
+        final CompletionStage<Void> res;
+        if (leading.get()) {
+            res = sent;
+        } else {
+            res = flight.handle((nothing, err) -> key)
+                .thenCompose(landed -> this.follow(line, landed, connection));
+        }
+        return res;
+    }
+
+    /**
+     * Pull the file leading the flight. Immutable file is checked once again:
+     * it could be stored by previous flight after the request checked it.
+     * @param line Request line
+     * @param key File key
+     * @param connection Connection
+     * @param stored Completed when upstream response is handled and its body stored
+     * @return Completion
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Void> lead(final String line, final Key key,
+        final Connection connection, final CompletableFuture<Void> stored) {
+        final CompletionStage<Void> res;
+        if (this.mutable) {
+            res = this.fetch(line, key, connection, stored);
+        } else {
+            res = this.storage.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Void> local;
+                    if (exists) {
+                        stored.complete(null);
+                        local = this.local(key, connection);
+                    } else {
+                        local = this.fetch(line, key, connection, stored);
+                    }
+                    return local;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Respond after the pull of other request landed.
+     * @param line Request line
+     * @param key File key
+     * @param connection Connection
+     * @return Completion
+     */
+    private CompletionStage<Void> follow(final String line, final Key key,
+        final Connection connection) {
+        final CompletionStage<Void> res;
+        if (this.mutable) {
+            res = this.local(key, connection);
+        } else {
+            res = this.storage.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Void> local;
+                    if (exists) {
+                        local = this.local(key, connection);
+                    } else {
+                        local = this.fetch(line, key, connection, new CompletableFuture<>());
+                    }
+                    return local;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Send upstream response falling back to the storage
+     * or to unavailable status if the upstream failed.
+     * @param line Request line
+     * @param key File key
+     * @param connection Connection
+     * @param stored Completed when upstream response is handled and its body stored
+     * @return Completion
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Void> fetch(final String line, final Key key,
+        final Connection connection, final CompletableFuture<Void> stored) {
+        return this.remote(line, key, connection, stored).thenCompose(
+            sent -> PullThroughSlice.unless(
+                sent,
+                () -> {
+                    final CompletionStage<Void> res;
+                    if (this.mutable) {
+                        res = this.local(key, connection);
+                    } else {
+                        res = new RsWithStatus(RsStatus.UNAVAILABLE).send(connection);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Send stored file.
+     * @param key File key
+     * @param connection Connection
+     * @return Completion
+     */
+    private CompletionStage<Void> local(final Key key, final Connection connection) {
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.value(key).thenCompose(
+                        content -> connection.accept(
+                            RsStatus.OK, PullThroughSlice.length(content.size()), content
+                        )
+                    );
+                } else {
+                    res = StandardRs.NOT_FOUND.send(connection);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Send upstream response, saving successful response body to the storage.
+     * @param line Request line
+     * @param key File key
+     * @param connection Connection
+     * @param stored Completed when upstream response is handled and its body stored
+     * @return True when response is sent, false if upstream is not available
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Boolean> remote(final String line, final Key key,
+        final Connection connection, final CompletableFuture<Void> stored) {
+        final AtomicBoolean accepted = new AtomicBoolean();
+        final CompletableFuture<Boolean> res = new CompletableFuture<>();
+        this.upstream.response(line, Headers.EMPTY, Flowable.empty()).send(
+            (status, headers, body) -> {
+                final CompletionStage<Void> sent;
+                if (status == RsStatus.OK) {
+                    accepted.set(true);
+                    final Optional<Long> size = PullThroughSlice.size(headers);
+                    final Tee tee = new Tee();
+                    this.storage.save(key, new Content.From(size, tee.copy()))
+                        .whenComplete((nothing, err) -> stored.complete(nothing));
+                    sent = connection.accept(
+                        status, PullThroughSlice.length(size), tee.body(body)
+                    );
+                } else if (status.serverError()) {
+                    sent = CompletableFuture.allOf();
+                } else {
+                    accepted.set(true);
+                    stored.complete(null);
+                    sent = new RsWithStatus(status).send(connection);
+                }
+                return sent;
+            }
+        ).whenComplete(
+            (nothing, err) -> {
+                if (!accepted.get()) {
+                    stored.complete(null);
+                }
+                if (err == null || !accepted.get()) {
+                    res.complete(accepted.get());
+                } else {
+                    res.completeExceptionally(err);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Content length header.
+     * @param size Content size
+     * @return Headers
+     */
+    private static Headers length(final Optional<Long> size) {
+        return size.<Headers>map(
+            val -> new Headers.From(PullThroughSlice.CONTENT_LENGTH, String.valueOf(val))
+        ).orElse(Headers.EMPTY);
+    }
+
+    /**
+     * Content size by Content-Length header.
+     * @param headers Headers
+     * @return Size if known
+     */
+    private static Optional<Long> size(final Iterable<Map.Entry<String, String>> headers) {
+        Optional<Long> res = Optional.empty();
+        for (final Map.Entry<String, String> header : headers) {
+            if (PullThroughSlice.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                res = Optional.of(Long.parseLong(header.getValue()));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Run action unless response was sent.
+     * @param sent Was response sent
+     * @param action Action
+     * @return Completion
+     */
+    private static CompletionStage<Void> unless(final boolean sent,
+        final Supplier<CompletionStage<Void>> action) {
+        final CompletionStage<Void> res;
+        if (sent) {
+            res = CompletableFuture.allOf();
+        } else {
+            res = action.get();
+        }
+        return res;
+    }
+
+    /**
+     * Response body copied to the storage.
+     * @since 0.4
+     */
+    private static final class Tee {
+
+        /**
+         * Copy of the body.
+         */
+        private final UnicastProcessor<ByteBuffer> processor;
+
+        /**
+         * Is copy terminated.
+         */
+        private final AtomicBoolean done;
+
+        /**
+         * Ctor.
+         */
+        Tee() {
+            this.processor = UnicastProcessor.create();
+            this.done = new AtomicBoolean();
+        }
+
+        /**
+         * Copy of the body.
+         * @return Publisher of body bytes
+         */
+        Publisher<ByteBuffer> copy() {
+            return this.processor;
+        }
+
+        /**
+         * Body which is copied as it's read.
+         * @param body Origin body
+         * @return Body publisher
+         */
+        Flowable<ByteBuffer> body(final Publisher<ByteBuffer> body) {
+            return Flowable.fromPublisher(body)
+                .doOnNext(buf -> this.processor.onNext(buf.duplicate()))
+                .doOnComplete(
+                    () -> {
+                        if (this.done.compareAndSet(false, true)) {
+                            this.processor.onComplete();
+                        }
+                    }
+                )
+                .doOnError(this::fail)
+                .doOnCancel(
+                    () -> this.fail(
+                        new IllegalStateException("Upstream body was not read completely")
+                    )
+                );
+        }
+
+        /**
+         * Fail the copy unless it's terminated.
+         * @param err Error
+         */
+        private void fail(final Throwable err) {
+            if (this.done.compareAndSet(false, true)) {
+                this.processor.onError(err);
+            }
+        }
+    }
+}
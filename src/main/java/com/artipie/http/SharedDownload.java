@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice to download storage files which shares concurrent reads of the same file.
+ * <p>
+ * The first request for a key reads the file from the storage, requests for
+ * the same key coming until the storage returns the value join it: the value
+ * is read once and its body is streamed to all of them, as fast as the slowest
+ * one reads it, without keeping it in memory. Requests coming after the value is
+ * returned can't get the beginning of the body anymore, so they read the file
+ * by themselves. Shared body is streamed when every joined response is sent.
+ * @since 0.4
+ */
+final class SharedDownload implements Slice {
+
+    /**
+     * Number of body chunks to read ahead of the slowest response.
+     */
+    private static final int PREFETCH = 8;
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Reads in flight by key.
+     */
+    private final ConcurrentMap<Key, Flight> flights;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    SharedDownload(final Storage storage) {
+        this.storage = storage;
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Key key = GoPath.from(line, headers).key();
+        return connection -> this.flights.computeIfAbsent(key, this::flight).join()
+            .orElseGet(() -> this.flight(key).join().get())
+            .thenCompose(response -> response.send(connection));
+    }
+
+    /**
+     * Number of reads in flight.
+     * @return Reads count
+     */
+    int size() {
+        return this.flights.size();
+    }
+
+    /**
+     * New read of the key.
+     * @param key Key
+     * @return Flight
+     */
+    private Flight flight(final Key key) {
+        return new Flight(this.storage, key, flight -> this.flights.remove(key, flight));
+    }
+
+    /**
+     * Read of the storage file shared by joined responses.
+     * @since 0.4
+     */
+    private static final class Flight {
+
+        /**
+         * Storage.
+         */
+        private final Storage storage;
+
+        /**
+         * Key.
+         */
+        private final Key key;
+
+        /**
+         * Action to land the flight.
+         */
+        private final Consumer<Flight> land;
+
+        /**
+         * Response shared by joined requests.
+         */
+        private final CompletableFuture<Response> response;
+
+        /**
+         * Lock of the flight state.
+         */
+        private final Object lock;
+
+        /**
+         * Number of joined requests.
+         */
+        private int parties;
+
+        /**
+         * Whether the flight is closed for new requests.
+         */
+        private boolean closed;
+
+        /**
+         * Ctor.
+         * @param storage Storage
+         * @param key Key
+         * @param land Action to land the flight
+         */
+        Flight(final Storage storage, final Key key,
+            final Consumer<Flight> land) {
+            this.storage = storage;
+            this.key = key;
+            this.land = land;
+            this.response = new CompletableFuture<>();
+            this.lock = new Object();
+        }
+
+        /**
+         * Join the flight, the first request starts the read.
+         * @return Shared response or empty if the flight is closed
+         */
+        Optional<CompletableFuture<Response>> join() {
+            final Optional<CompletableFuture<Response>> res;
+            final boolean lead;
+            synchronized (this.lock) {
+                lead = !this.closed && this.parties == 0;
+                if (this.closed) {
+                    res = Optional.empty();
+                } else {
+                    res = Optional.of(this.response);
+                    this.parties += 1;
+                }
+            }
+            if (lead) {
+                this.storage.value(this.key).whenComplete(this::read);
+            }
+            return res;
+        }
+
+        /**
+         * Close the flight and share the value read with joined requests.
+         * @param content Value
+         * @param err Error
+         */
+        private void read(final Content content, final Throwable err) {
+            final int count;
+            synchronized (this.lock) {
+                this.closed = true;
+                count = this.parties;
+            }
+            this.land.accept(this);
+            if (err == null) {
+                this.response.complete(
+                    new RsWithBody(
+                        new Content.From(
+                            content.size(),
+                            Flowable.fromPublisher(content)
+                                .publish(SharedDownload.PREFETCH)
+                                .refCount(count)
+                                .map(ByteBuffer::duplicate)
+                        )
+                    )
+                );
+            } else if (err instanceof ValueNotFoundException
+                || err.getCause() instanceof ValueNotFoundException) {
+                this.response.complete(
+                    new RsWithStatus(
+                        new RsWithBody(
+                            String.format("Key %s not found", this.key.string()),
+                            StandardCharsets.UTF_8
+                        ),
+                        RsStatus.NOT_FOUND
+                    )
+                );
+            } else {
+                this.response.completeExceptionally(err);
+            }
+        }
+    }
+}
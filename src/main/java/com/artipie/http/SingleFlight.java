@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalescing of concurrent operations with the same key.
+ * <p>
+ * The first caller for the key starts the operation, callers joining
+ * while it's in flight get the same result instead of starting their own.
+ * The flight lands, so next caller starts new operation, when the leader says so
+ * or when the operation fails.
+ * @param <K> Key type
+ * @param <V> Result type
+ * @since 0.4
+ */
+final class SingleFlight<K, V> {
+
+    /**
+     * Operations in flight.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> flights;
+
+    /**
+     * Ctor.
+     */
+    SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Join the flight of the key or start new one.
+     * @param key Key
+     * @param leader Operation to start, it accepts a callback to land the flight;
+     *  it's called only if there is no flight for the key
+     * @return Result of the operation
+     */
+    CompletionStage<V> join(final K key,
+        final Function<Runnable, CompletionStage<V>> leader) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> current = this.flights.putIfAbsent(key, flight);
+        final CompletionStage<V> res;
+        if (current == null) {
+            CompletableFuture.completedFuture(key).thenCompose(
+                started -> leader.apply(() -> this.flights.remove(started, flight))
+            ).whenComplete(
+                (val, err) -> {
+                    if (err == null) {
+                        flight.complete(val);
+                    } else {
+                        this.flights.remove(key, flight);
+                        flight.completeExceptionally(err);
+                    }
+                }
+            );
+            res = flight;
+        } else {
+            res = current.thenApply(Function.identity());
+        }
+        return res;
+    }
+
+    /**
+     * Number of operations in flight.
+     * @return Count
+     */
+    int size() {
+        return this.flights.size();
+    }
+}
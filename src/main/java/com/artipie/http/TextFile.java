@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.PublisherAs;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Small ASCII text file in the storage which may be missing,
+ * e.g. checksum saved along with an artifact.
+ * @since 0.4
+ */
+final class TextFile {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * File key.
+     */
+    private final Key key;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param key File key
+     */
+    TextFile(final Storage storage, final Key key) {
+        this.storage = storage;
+        this.key = key;
+    }
+
+    /**
+     * Read the file with single storage request: missing file is reported
+     * by the storage as {@link ValueNotFoundException}.
+     * @return Text if file exists
+     */
+    CompletionStage<Optional<String>> text() {
+        return this.storage.value(this.key).handle(
+            (content, err) -> {
+                final CompletionStage<Optional<String>> res;
+                if (err == null) {
+                    res = new PublisherAs(content).asciiString().thenApply(Optional::of);
+                } else if (err instanceof ValueNotFoundException
+                    || err.getCause() instanceof ValueNotFoundException) {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                } else {
+                    final CompletableFuture<Optional<String>> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(err);
+                    res = failed;
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which sends GET requests to the upstream Go module proxy,
+ * e.g. {@code https://proxy.golang.org}.
+ * <p>
+ * Request path is appended to the upstream URI, response body is read
+ * from the connection as it's consumed. Connections block, so requests and
+ * reads run on the given executor, IO scheduler by default. Upstream statuses
+ * unknown to {@link RsStatus} are reported as {@code 404} for client errors
+ * and {@code 503} otherwise: e.g. {@code 410 Gone} of proxy.golang.org means
+ * the module doesn't exist.
+ * @since 0.4
+ */
+public final class UpstreamSlice implements Slice {
+
+    /**
+     * Connect and read timeout in milliseconds.
+     */
+    private static final int TIMEOUT = 30_000;
+
+    /**
+     * Body chunk size.
+     */
+    private static final int CHUNK = 8 * 1024;
+
+    /**
+     * Upstream URI.
+     */
+    private final URI upstream;
+
+    /**
+     * Scheduler of blocking requests and reads.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Ctor.
+     * @param upstream Upstream URI, e.g. "https://proxy.golang.org"
+     */
+    public UpstreamSlice(final URI upstream) {
+        this(upstream, Schedulers.io());
+    }
+
+    /**
+     * Ctor.
+     * @param upstream Upstream URI, e.g. "https://proxy.golang.org"
+     * @param executor Executor of blocking requests and reads, bounded one
+     *  to limit concurrent upstream connections, e.g. {@link MeteredExecutor}
+     *  of fixed thread pool
+     */
+    public UpstreamSlice(final URI upstream, final Executor executor) {
+        this(upstream, Schedulers.from(executor));
+    }
+
+    /**
+     * Ctor.
+     * @param upstream Upstream URI
+     * @param scheduler Scheduler of blocking requests and reads
+     */
+    private UpstreamSlice(final URI upstream, final Scheduler scheduler) {
+        this.upstream = upstream;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Response response(
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final CompletableFuture<Response> res = new CompletableFuture<>();
+        Single.fromCallable(() -> this.get(new RequestLineFrom(line).uri().getRawPath()))
+            .subscribeOn(this.scheduler)
+            .subscribe(res::complete, res::completeExceptionally);
+        return new AsyncResponse(res);
+    }
+
+    /**
+     * Send GET request to the upstream.
+     * @param path Request path
+     * @return Response
+     * @throws Exception On connection error
+     */
+    private Response get(final String path) throws Exception {
+        final HttpURLConnection conn = (HttpURLConnection) this.url(path).openConnection();
+        conn.setConnectTimeout(UpstreamSlice.TIMEOUT);
+        conn.setReadTimeout(UpstreamSlice.TIMEOUT);
+        conn.setInstanceFollowRedirects(true);
+        conn.setRequestMethod("GET");
+        final int code = conn.getResponseCode();
+        return new RsFull(
+            UpstreamSlice.status(code),
+            UpstreamSlice.headers(conn),
+            UpstreamSlice.body(conn, UpstreamSlice.stream(conn, code))
+                .subscribeOn(this.scheduler)
+        );
+    }
+
+    /**
+     * Upstream URL of the path.
+     * @param path Request path
+     * @return URL
+     * @throws Exception If URL is malformed
+     */
+    private URL url(final String path) throws Exception {
+        final String base = this.upstream.toString();
+        final StringBuilder url = new StringBuilder(base);
+        if (base.endsWith("/")) {
+            url.setLength(url.length() - 1);
+        }
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            url.append('/');
+        }
+        return new URL(url.append(path).toString());
+    }
+
+    /**
+     * Response headers to pass to the client.
+     * @param conn Connection
+     * @return Headers
+     */
+    private static List<Map.Entry<String, String>> headers(final HttpURLConnection conn) {
+        final List<Map.Entry<String, String>> res = new ArrayList<>(2);
+        for (final String name : Arrays.asList("Content-Type", "Content-Length")) {
+            final String value = conn.getHeaderField(name);
+            if (value != null) {
+                res.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Response body stream.
+     * @param conn Connection
+     * @param code Response code
+     * @return Input stream
+     * @throws Exception On error
+     */
+    private static InputStream stream(final HttpURLConnection conn, final int code)
+        throws Exception {
+        final InputStream res;
+        if (code < HttpURLConnection.HTTP_BAD_REQUEST) {
+            res = conn.getInputStream();
+        } else if (conn.getErrorStream() == null) {
+            res = new ByteArrayInputStream(new byte[0]);
+        } else {
+            res = conn.getErrorStream();
+        }
+        return res;
+    }
+
+    /**
+     * Response body read as it's requested.
+     * @param conn Connection, disconnected when the body is read or cancelled
+     * @param stream Body stream
+     * @return Body publisher
+     */
+    private static Flowable<ByteBuffer> body(final HttpURLConnection conn,
+        final InputStream stream) {
+        return Flowable.<ByteBuffer, InputStream>generate(
+            () -> stream,
+            (input, emitter) -> {
+                final byte[] buf = new byte[UpstreamSlice.CHUNK];
+                final int read = input.read(buf);
+                if (read < 0) {
+                    emitter.onComplete();
+                } else {
+                    emitter.onNext(ByteBuffer.wrap(buf, 0, read));
+                }
+            },
+            input -> {
+                input.close();
+                conn.disconnect();
+            }
+        );
+    }
+
+    /**
+     * Response status by code.
+     * @param code Upstream status code
+     * @return Status
+     */
+    private static RsStatus status(final int code) {
+        final String str = String.valueOf(code);
+        RsStatus res = RsStatus.UNAVAILABLE;
+        if (code >= HttpURLConnection.HTTP_BAD_REQUEST
+            && code < HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            res = RsStatus.NOT_FOUND;
+        }
+        for (final RsStatus known : RsStatus.values()) {
+            if (known.code().equals(str)) {
+                res = known;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Remaining;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link Aggregation}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class AggregationTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 5, 11, 20})
+    void aggregatesChunks(final long size) {
+        final Optional<Long> known;
+        if (size < 0) {
+            known = Optional.empty();
+        } else {
+            known = Optional.of(size);
+        }
+        MatcherAssert.assertThat(
+            new String(
+                new Remaining(
+                    new Aggregation(
+                        new Content.From(
+                            known,
+                            Flowable.just(
+                                ByteBuffer.wrap("hello".getBytes()),
+                                ByteBuffer.wrap(" ".getBytes()),
+                                ByteBuffer.wrap("world".getBytes())
+                            )
+                        ),
+                        new BufferPool.Bounded(2, 1024)
+                    ).single().blockingGet()
+                ).bytes()
+            ),
+            new IsEqual<>("hello world")
+        );
+    }
+
+    @Test
+    void aggregatesEmptyContent() {
+        MatcherAssert.assertThat(
+            new Aggregation(Content.EMPTY).single().blockingGet().remaining(),
+            new IsEqual<>(0)
+        );
+    }
+}
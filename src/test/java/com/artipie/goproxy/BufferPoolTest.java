@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BufferPool}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class BufferPoolTest {
+
+    @Test
+    void reusesReleasedBuffer() {
+        final BufferPool pool = new BufferPool.Bounded(1, 64);
+        final ByteBuffer first = pool.acquire(10);
+        pool.release(first);
+        MatcherAssert.assertThat(pool.acquire(12), new IsSame<>(first));
+    }
+
+    @Test
+    void limitsBufferBySize() {
+        final ByteBuffer buffer = new BufferPool.Bounded(1, 64).acquire(10);
+        MatcherAssert.assertThat(buffer.remaining(), new IsEqual<>(10));
+    }
+
+    @Test
+    void doesNotKeepLargeBuffers() {
+        final BufferPool pool = new BufferPool.Bounded(1, 64);
+        final ByteBuffer large = pool.acquire(100);
+        pool.release(large);
+        MatcherAssert.assertThat(pool.acquire(100), new IsNot<>(new IsSame<>(large)));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DirHash}.
+ * @since 0.4
+ */
+final class DirHashTest {
+
+    @Test
+    void hashesGoMod() throws Exception {
+        MatcherAssert.assertThat(
+            new DirHash().with(
+                "go.mod",
+                MessageDigest.getInstance("SHA-256")
+                    .digest("module example.com/foo/bar".getBytes(StandardCharsets.UTF_8))
+            ).value(),
+            Matchers.equalTo("h1:ywUY53VurJ0SsyTMmYaxHOnC/CzZkSVUayhXT6BrLD4=")
+        );
+    }
+
+    @Test
+    void hashesFilesSortedByName() {
+        MatcherAssert.assertThat(
+            new DirHash()
+                .with(
+                    "example.com/foo/bar@v0.0.1/go.mod",
+                    "41282b8a09ab2461b5f2280c0e883a244378aa01b8ae9dd290f99dbb23554e44"
+                )
+                .with(
+                    "example.com/foo/bar@v0.0.1/bar.go",
+                    "b51eb5289927ddfce1ed9a15b949695e479682efd1b6e399ff8e9961c1f459b7"
+                )
+                .value(),
+            Matchers.equalTo("h1:QnjNZ0mm1KoKKpnJVGb5subDodAzRxsHSWKPERcLZao=")
+        );
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.rx.RxStorageWrapper;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link EntryCache}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class EntryCacheTest {
+
+    /**
+     * Source file bytes.
+     */
+    private static final byte[] SOURCE = "package foo".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Module path.
+     */
+    private static final String MODULE = "example.com/foo";
+
+    @Test
+    void loadsSavedEntry() {
+        final EntryCache cache = new EntryCache(
+            new RxStorageWrapper(new InMemoryStorage()), EntryCacheTest.MODULE
+        );
+        final Key key = cache.key(EntryCacheTest.SOURCE, "6");
+        cache.save(key, new EntryCache.Deflated(0xCAFEBABEL, 11, new byte[] {1, 2, 3}))
+            .blockingAwait();
+        final EntryCache.Deflated entry = cache.load(key).blockingGet();
+        MatcherAssert.assertThat(
+            "CRC is not loaded",
+            entry.crc(),
+            Matchers.equalTo(0xCAFEBABEL)
+        );
+        MatcherAssert.assertThat(
+            "Size is not loaded",
+            entry.size(),
+            Matchers.equalTo(11L)
+        );
+        MatcherAssert.assertThat(
+            "Data is not loaded",
+            entry.data(),
+            Matchers.equalTo(new byte[] {1, 2, 3})
+        );
+    }
+
+    @Test
+    void loadsNothingIfNotCached() {
+        final EntryCache cache = new EntryCache(
+            new RxStorageWrapper(new InMemoryStorage()), EntryCacheTest.MODULE
+        );
+        MatcherAssert.assertThat(
+            cache.load(cache.key(EntryCacheTest.SOURCE, "6")).isEmpty().blockingGet(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void keepsEntriesNextToModuleByHashAndMode() {
+        final EntryCache cache = new EntryCache(
+            new RxStorageWrapper(new InMemoryStorage()), EntryCacheTest.MODULE
+        );
+        MatcherAssert.assertThat(
+            "Key is not named by source hash and mode",
+            cache.key(EntryCacheTest.SOURCE, "6.p").string(),
+            Matchers.equalTo(
+                String.join(
+                    "",
+                    "example.com/foo/@deflated/",
+                    "25d8bfb3fc5b4eb837e10fe9bac752ea4958495f5083222ecd661ce05271e516",
+                    ".6.p"
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Modes are not cached apart",
+            cache.key(EntryCacheTest.SOURCE, "6"),
+            Matchers.not(Matchers.equalTo(cache.key(EntryCacheTest.SOURCE, "9")))
+        );
+    }
+
+    @Test
+    void prunesEntriesNotUsedByArchive() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final EntryCache previous = new EntryCache(
+            new RxStorageWrapper(storage), EntryCacheTest.MODULE
+        );
+        final Key kept = previous.key(EntryCacheTest.SOURCE, "6");
+        final Key removed = previous.key("package bar".getBytes(StandardCharsets.UTF_8), "6");
+        for (final Key key : new Key[] {kept, removed}) {
+            previous.save(key, new EntryCache.Deflated(1L, 1L, new byte[] {1}))
+                .blockingAwait();
+        }
+        final EntryCache next = new EntryCache(
+            new RxStorageWrapper(storage), EntryCacheTest.MODULE
+        );
+        next.key(EntryCacheTest.SOURCE, "6");
+        next.prune().blockingAwait();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).list(new Key.From(EntryCacheTest.MODULE, EntryCache.DIR)),
+            Matchers.contains(kept)
+        );
+    }
+}
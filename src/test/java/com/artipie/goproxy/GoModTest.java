@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.ValueNotFoundException;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link GoMod}.
+ *
+ * @since 0.4
+ */
+final class GoModTest {
+
+    /**
+     * File key.
+     */
+    private static final Key KEY = new Key.From("foo/go.mod");
+
+    /**
+     * Module path.
+     */
+    private static final String MODULE = "example.com/foo";
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "module example.com/foo\ngo 1.11\n",
+            "// comment\n\nmodule \"example.com/foo\" // path\n",
+            "module (\n  example.com/foo\n)\n",
+            "go 1.11\n  module\texample.com/foo\n"
+        }
+    )
+    void capturesDeclaredModule(final String text) {
+        final GoMod mod = new GoMod(GoModTest.MODULE);
+        GoModTest.read(mod, text);
+        MatcherAssert.assertThat(
+            new String(
+                new Remaining(
+                    Goproxy.readCompletely(mod.content(GoModTest.KEY)).blockingGet()
+                ).bytes(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo(text)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "module example.com/bar",
+            "module example.com/foo/v2",
+            "// module example.com/foo",
+            "moduleexample.com/foo",
+            "go 1.11"
+        }
+    )
+    void rejectsOtherModule(final String text) {
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> GoModTest.read(new GoMod(GoModTest.MODULE), text)
+        );
+    }
+
+    @Test
+    void acceptsAnyModuleIfNotExpected() {
+        final String text = "module example.com/bar";
+        final GoMod mod = new GoMod();
+        GoModTest.read(mod, text);
+        mod.require(GoModTest.KEY);
+        MatcherAssert.assertThat(
+            mod.content(GoModTest.KEY).size(),
+            Matchers.equalTo(Optional.of((long) text.length()))
+        );
+    }
+
+    @Test
+    void requiresExpectedFile() {
+        Assertions.assertThrows(
+            ValueNotFoundException.class,
+            () -> new GoMod(GoModTest.MODULE).require(GoModTest.KEY)
+        );
+    }
+
+    @Test
+    void doesNotRequireUnexpectedFile() {
+        Assertions.assertDoesNotThrow(() -> new GoMod().require(GoModTest.KEY));
+    }
+
+    /**
+     * Read the file through the mod in two chunks.
+     * @param mod Go mod
+     * @param text File text
+     */
+    private static void read(final GoMod mod, final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final int half = bytes.length / 2;
+        Flowable.fromPublisher(
+            mod.tee(
+                new Content.From(
+                    Flowable.just(
+                        ByteBuffer.wrap(bytes, 0, half),
+                        ByteBuffer.wrap(bytes, half, bytes.length - half)
+                    )
+                )
+            )
+        ).blockingSubscribe();
+    }
+}
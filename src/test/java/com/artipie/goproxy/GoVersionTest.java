@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link GoVersion}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class GoVersionTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "v1.9.0,v1.10.0",
+        "v1.0.0-rc.1,v1.0.0",
+        "v1.0.0-alpha,v1.0.0-alpha.1",
+        "v1.0.0-alpha.1,v1.0.0-alpha.beta",
+        "v1.0.0-beta.2,v1.0.0-beta.11",
+        "v1.0.0-rc.1,v1.0.0-rc.1.0",
+        "v0.0.0-20190101000000-abcdefabcdef,v0.0.1",
+        "latest,v0.0.1",
+        "v2.0.0+incompatible,v2.0.1"
+    })
+    void ordersByPrecedence(final String lower, final String greater) {
+        MatcherAssert.assertThat(
+            new GoVersion(lower),
+            Matchers.lessThan(new GoVersion(greater))
+        );
+    }
+
+    @Test
+    void ignoresBuildMetadata() {
+        MatcherAssert.assertThat(
+            new GoVersion("v1.2.0+meta"),
+            Matchers.equalTo(new GoVersion("v1.2.0"))
+        );
+    }
+
+    @Test
+    void prefersReleasesForLatest() {
+        final List<GoVersion> versions = Arrays.asList(
+            new GoVersion("v0.9.0"),
+            new GoVersion("v1.0.0-rc.1"),
+            new GoVersion("v1.1.0-0.20200101000000-abcdefabcdef"),
+            new GoVersion("v0.10.0"),
+            new GoVersion("master")
+        );
+        versions.sort(GoVersion.LATEST);
+        MatcherAssert.assertThat(
+            versions.stream().map(GoVersion::toString).collect(Collectors.toList()),
+            Matchers.contains(
+                "master", "v1.1.0-0.20200101000000-abcdefabcdef", "v1.0.0-rc.1",
+                "v0.9.0", "v0.10.0"
+            )
+        );
+    }
+}
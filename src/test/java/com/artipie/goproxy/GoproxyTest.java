@@ -24,20 +24,37 @@
 package com.artipie.goproxy;
 
 import com.artipie.asto.Content;
+import com.artipie.asto.Key;
 import com.artipie.asto.Remaining;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
 import io.reactivex.Single;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Unit test for Goproxy class.
  *
  * @since 0.3
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
  */
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
 public class GoproxyTest {
     @Test
     public void generatesVersionedJson() {
@@ -52,4 +69,207 @@ public class GoproxyTest {
             Matchers.equalTo(new String(new Remaining(data).bytes()))
         );
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void createsArtifactsAndList(final int parallelism) throws Exception {
+        final Storage storage = GoproxyTest.sources();
+        new Goproxy(storage, parallelism).update("example.com/foo/bar", "0.0.1").blockingAwait();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        MatcherAssert.assertThat(
+            "Artifacts are not created",
+            bsto.list(new Key.From("example.com/foo/bar/@v")),
+            Matchers.containsInAnyOrder(
+                new Key.From("example.com/foo/bar/@v/v0.0.1.mod"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.zip"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.info"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.mod.sha256"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.zip.sha256"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.info.sha256"),
+                new Key.From("example.com/foo/bar/@v/v0.0.1.ziphash"),
+                new Key.From("example.com/foo/bar/@v/list")
+            )
+        );
+        MatcherAssert.assertThat(
+            "List is not updated",
+            new String(bsto.value(new Key.From("example.com/foo/bar/@v/list"))),
+            Matchers.equalTo("v0.0.1")
+        );
+        MatcherAssert.assertThat(
+            "Latest index is not updated",
+            bsto.value(new Key.From("example.com/foo/bar/@latest")),
+            Matchers.equalTo(bsto.value(new Key.From("example.com/foo/bar/@v/v0.0.1.info")))
+        );
+    }
+
+    @Test
+    void savesArtifactChecksums() throws Exception {
+        final Storage storage = GoproxyTest.sources();
+        new Goproxy(storage).update("example.com/foo/bar", "0.0.1").blockingAwait();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (final String ext : new String[] {"mod", "zip", "info"}) {
+            final Key key = new Key.From(String.format("example.com/foo/bar/@v/v0.0.1.%s", ext));
+            MatcherAssert.assertThat(
+                String.format("Wrong %s checksum", ext),
+                new String(
+                    bsto.value(new Key.From(String.format("%s.sha256", key.string()))),
+                    StandardCharsets.US_ASCII
+                ),
+                Matchers.equalTo(
+                    String.format(
+                        "%064x",
+                        new BigInteger(
+                            1, MessageDigest.getInstance("SHA-256").digest(bsto.value(key))
+                        )
+                    )
+                )
+            );
+        }
+    }
+
+    @Test
+    void savesArchiveGoHash() throws Exception {
+        final Storage storage = GoproxyTest.sources();
+        new Goproxy(storage).update("example.com/foo/bar", "0.0.1").blockingAwait();
+        MatcherAssert.assertThat(
+            new String(
+                new BlockingStorage(storage).value(
+                    new Key.From("example.com/foo/bar/@v/v0.0.1.ziphash")
+                ),
+                StandardCharsets.US_ASCII
+            ),
+            Matchers.equalTo("h1:QnjNZ0mm1KoKKpnJVGb5subDodAzRxsHSWKPERcLZao=")
+        );
+    }
+
+    @Test
+    void recordsPhaseTimes() throws Exception {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        new Goproxy(GoproxyTest.sources(), 3, ArchiveOptions.DEFAULT, UpdateListener.NONE, metrics)
+            .update("example.com/foo/bar", "0.0.1").blockingAwait();
+        for (final String phase : new String[] {"mod", "zip", "info", "list"}) {
+            MatcherAssert.assertThat(
+                String.format("Phase %s is not recorded", phase),
+                metrics.timer(String.format("goproxy.update.%s", phase)).count(),
+                Matchers.equalTo(1L)
+            );
+        }
+    }
+
+    @Test
+    void notifiesListener() throws Exception {
+        final List<String> updated = new CopyOnWriteArrayList<>();
+        new Goproxy(GoproxyTest.sources(), 1, ArchiveOptions.DEFAULT, updated::add)
+            .update("example.com/foo/bar", "0.0.1").blockingAwait();
+        MatcherAssert.assertThat(updated, Matchers.contains("example.com/foo/bar"));
+    }
+
+    @Test
+    void updatesAllVersionsAtOnce() throws Exception {
+        final Storage storage = GoproxyTest.sources();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/baz/go.mod"), "module example.com/foo/baz".getBytes());
+        final List<String> updated = new CopyOnWriteArrayList<>();
+        final BatchReport report = new Goproxy(storage, 1, ArchiveOptions.DEFAULT, updated::add)
+            .updateAll(
+                Arrays.asList(
+                    new AbstractMap.SimpleEntry<>("example.com/foo/bar", "0.0.1"),
+                    new AbstractMap.SimpleEntry<>("example.com/foo/baz", "1.0.0"),
+                    new AbstractMap.SimpleEntry<>("example.com/foo/none", "1.0.0"),
+                    new AbstractMap.SimpleEntry<>("example.com/foo/bar", "0.0.2")
+                ),
+                2
+            ).blockingGet();
+        MatcherAssert.assertThat(
+            "Wrong failed versions",
+            report.items().stream()
+                .filter(item -> item.error().isPresent())
+                .map(BatchReport.Item::module)
+                .collect(Collectors.toList()),
+            Matchers.contains("example.com/foo/none")
+        );
+        MatcherAssert.assertThat(
+            "Wrong list",
+            Arrays.asList(
+                new String(bsto.value(new Key.From("example.com/foo/bar/@v/list"))).split("\n")
+            ),
+            Matchers.containsInAnyOrder("v0.0.1", "v0.0.2")
+        );
+        MatcherAssert.assertThat(
+            "Listener is not notified once per module",
+            updated,
+            Matchers.containsInAnyOrder("example.com/foo/bar", "example.com/foo/baz")
+        );
+    }
+
+    @Test
+    void doesNotListVersionIfArtifactFailed() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(new Key.From("foo/bar/bar.go"), "package bar".getBytes());
+        new Goproxy(storage).update("example.com/foo/bar", "0.0.2")
+            .onErrorComplete().blockingAwait();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).exists(new Key.From("example.com/foo/bar/@v/list")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void archivesNextVersionWithEntryCache() throws Exception {
+        final Storage storage = GoproxyTest.sources();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Goproxy goproxy = new Goproxy(
+            storage, 1, ArchiveOptions.DEFAULT.withReproducible().withEntryCache()
+        );
+        goproxy.update("example.com/foo/bar", "0.0.1").blockingAwait();
+        goproxy.update("example.com/foo/bar", "0.0.2").blockingAwait();
+        final Storage plain = GoproxyTest.sources();
+        new Goproxy(plain, 1, ArchiveOptions.DEFAULT.withReproducible())
+            .update("example.com/foo/bar", "0.0.2").blockingAwait();
+        MatcherAssert.assertThat(
+            "Archive with cached entries differs",
+            bsto.value(new Key.From("example.com/foo/bar/@v/v0.0.2.zip")),
+            Matchers.equalTo(
+                new BlockingStorage(plain).value(new Key.From("example.com/foo/bar/@v/v0.0.2.zip"))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Entries are not cached next to the module",
+            bsto.list(new Key.From("example.com/foo/bar/@deflated")),
+            Matchers.hasSize(2)
+        );
+    }
+
+    @Test
+    void rejectsSourcesOfAnotherModule() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/bar/go.mod"), "module example.com/foo/baz".getBytes());
+        bsto.save(new Key.From("foo/bar/bar.go"), "package bar".getBytes());
+        MatcherAssert.assertThat(
+            "Update of mismatched module is not failed",
+            new Goproxy(storage).update("example.com/foo/bar", "0.0.1").blockingGet(),
+            Matchers.hasToString(
+                Matchers.containsString("go.mod declares module example.com/foo/baz")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Files of mismatched module version are saved",
+            bsto.list(new Key.From("example.com/foo/bar")),
+            Matchers.empty()
+        );
+    }
+
+    /**
+     * Storage with module sources.
+     * @return Storage
+     * @throws Exception On error
+     */
+    private static Storage sources() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/bar/go.mod"), "module example.com/foo/bar".getBytes());
+        bsto.save(new Key.From("foo/bar/bar.go"), "package bar".getBytes());
+        return storage;
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MemoryMetrics}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class MemoryMetricsTest {
+
+    @Test
+    void sumsCounters() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        metrics.add("bytes", 10);
+        metrics.add("bytes", 32);
+        MatcherAssert.assertThat(
+            new long[] {metrics.counter("bytes"), metrics.counter("unknown")},
+            Matchers.equalTo(new long[] {42, 0})
+        );
+    }
+
+    @Test
+    void recordsTimes() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        for (int time = 1; time <= 100; time += 1) {
+            metrics.record("latency", time * 1000L);
+        }
+        final MemoryMetrics.Histogram timer = metrics.timer("latency");
+        MatcherAssert.assertThat(
+            "Wrong count, total and max",
+            new long[] {timer.count(), timer.total(), timer.max()},
+            Matchers.equalTo(new long[] {100, 5_050_000, 100_000})
+        );
+        MatcherAssert.assertThat(
+            "Wrong median",
+            timer.quantile(0.5),
+            Matchers.allOf(Matchers.greaterThanOrEqualTo(50_000L), Matchers.lessThan(100_000L))
+        );
+        MatcherAssert.assertThat(
+            "Wrong max quantile", timer.quantile(1), Matchers.equalTo(100_000L)
+        );
+    }
+
+    @Test
+    void hasEmptyTimerByDefault() {
+        final MemoryMetrics.Histogram timer = new MemoryMetrics().timer("none");
+        MatcherAssert.assertThat(
+            new long[] {timer.count(), timer.quantile(0.99)},
+            Matchers.equalTo(new long[] {0, 0})
+        );
+    }
+}
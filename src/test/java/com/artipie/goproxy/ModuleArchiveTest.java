@@ -0,0 +1,411 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.rx.RxStorageWrapper;
+import io.reactivex.Flowable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link ModuleArchive}.
+ *
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
+final class ModuleArchiveTest {
+
+    @Test
+    void archivesModuleSources() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/bar/go.mod"), "module example.com/foo/bar".getBytes());
+        bsto.save(new Key.From("foo/bar/bar.go"), "package bar".getBytes());
+        bsto.save(new Key.From("foo/baz/baz.go"), "package baz".getBytes());
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    new RxStorageWrapper(storage), "foo/bar/", "example.com/foo/bar@v0.0.1"
+                ).flow()
+            ),
+            Matchers.allOf(
+                Matchers.<String, String>aMapWithSize(2),
+                Matchers.hasEntry(
+                    "example.com/foo/bar@v0.0.1/go.mod", "module example.com/foo/bar"
+                ),
+                Matchers.hasEntry("example.com/foo/bar@v0.0.1/bar.go", "package bar")
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10})
+    void writesEntriesSorted(final int prefetch) throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (final String name : new String[] {"c.go", "a/b.go", "b.go", "a.go", "go.mod"}) {
+            bsto.save(new Key.From("mod", name), name.getBytes());
+        }
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    new RxStorageWrapper(storage), "mod/", "example.com/mod@v1.0.0",
+                    ArchiveOptions.DEFAULT.withPrefetch(prefetch)
+                ).flow()
+            ),
+            Matchers.allOf(
+                Matchers.hasEntry("example.com/mod@v1.0.0/a/b.go", "a/b.go"),
+                Matchers.hasEntry("example.com/mod@v1.0.0/go.mod", "go.mod")
+            )
+        );
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    new RxStorageWrapper(storage), "mod/", "v",
+                    ArchiveOptions.DEFAULT.withPrefetch(prefetch)
+                ).flow()
+            ).keySet(),
+            Matchers.contains("v/a.go", "v/a/b.go", "v/b.go", "v/c.go", "v/go.mod")
+        );
+    }
+
+    @Test
+    void buildsReproducibleArchive() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("rep/go.mod"), "module example.com/rep".getBytes());
+        bsto.save(new Key.From("rep/rep.go"), "package rep".getBytes());
+        final ModuleArchive archive = new ModuleArchive(
+            new RxStorageWrapper(storage), "rep/", "example.com/rep@v0.1.0",
+            ArchiveOptions.DEFAULT.withReproducible()
+        );
+        final byte[] first = ModuleArchiveTest.bytes(archive.flow());
+        MatcherAssert.assertThat(
+            "Archive bytes differ",
+            ModuleArchiveTest.bytes(archive.flow()),
+            Matchers.equalTo(first)
+        );
+        try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(first))) {
+            MatcherAssert.assertThat(
+                "Entry time is not fixed",
+                LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(input.getNextEntry().getTime()), ZoneId.systemDefault()
+                ),
+                Matchers.equalTo(LocalDateTime.of(1980, 1, 1, 0, 0))
+            );
+        }
+    }
+
+    @Test
+    void storesConfiguredExtensions() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("img/logo.PNG"), "not really an image".getBytes());
+        bsto.save(new Key.From("img/img.go"), "package img".getBytes());
+        final Map<String, Integer> methods = new LinkedHashMap<>();
+        try (ZipInputStream input = new ZipInputStream(
+            new ByteArrayInputStream(
+                ModuleArchiveTest.bytes(
+                    new ModuleArchive(
+                        new RxStorageWrapper(storage), "img/", "example.com/img@v1.0.0",
+                        ArchiveOptions.DEFAULT.withStored("png")
+                    ).flow()
+                )
+            )
+        )) {
+            ZipEntry entry = input.getNextEntry();
+            while (entry != null) {
+                methods.put(entry.getName(), entry.getMethod());
+                entry = input.getNextEntry();
+            }
+        }
+        MatcherAssert.assertThat(
+            methods,
+            Matchers.allOf(
+                Matchers.hasEntry("example.com/img@v1.0.0/logo.PNG", ZipEntry.STORED),
+                Matchers.hasEntry("example.com/img@v1.0.0/img.go", ZipEntry.DEFLATED)
+            )
+        );
+    }
+
+    @Test
+    void compressesWithConfiguredLevel() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("lvl/lvl.go"), ModuleArchiveTest.source(10_000).getBytes()
+        );
+        final RxStorageWrapper rxsto = new RxStorageWrapper(storage);
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.bytes(
+                new ModuleArchive(
+                    rxsto, "lvl/", "example.com/lvl@v1.0.0", ArchiveOptions.DEFAULT.withLevel(0)
+                ).flow()
+            ).length,
+            Matchers.greaterThan(
+                ModuleArchiveTest.bytes(
+                    new ModuleArchive(
+                        rxsto, "lvl/", "example.com/lvl@v1.0.0", ArchiveOptions.DEFAULT.withLevel(9)
+                    ).flow()
+                ).length
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void deflatesLargeFilesInParallel(final int prefetch) throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final String big = ModuleArchiveTest.source(50_000);
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("par/big.go"), big.getBytes());
+        bsto.save(new Key.From("par/go.mod"), "module example.com/par".getBytes());
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    new RxStorageWrapper(storage), "par/", "example.com/par@v1.0.0",
+                    ArchiveOptions.DEFAULT.withPrefetch(prefetch).withParallelDeflate(1024, 3)
+                ).flow()
+            ),
+            Matchers.allOf(
+                Matchers.hasEntry("example.com/par@v1.0.0/big.go", big),
+                Matchers.hasEntry("example.com/par@v1.0.0/go.mod", "module example.com/par")
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    void calculatesGoHash(final int prefetch) throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/bar/go.mod"), "module example.com/foo/bar".getBytes());
+        bsto.save(new Key.From("foo/bar/bar.go"), "package bar".getBytes());
+        final ModuleArchive archive = new ModuleArchive(
+            new RxStorageWrapper(storage), "foo/bar/", "example.com/foo/bar@v0.0.1",
+            ArchiveOptions.DEFAULT.withPrefetch(prefetch)
+        );
+        archive.flow().blockingSubscribe();
+        MatcherAssert.assertThat(
+            archive.hash(),
+            Matchers.equalTo("h1:QnjNZ0mm1KoKKpnJVGb5subDodAzRxsHSWKPERcLZao=")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    void capturesGoMod(final int prefetch) throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/bar/go.mod"), "module example.com/foo/bar".getBytes());
+        bsto.save(new Key.From("foo/bar/a.go"), "package bar".getBytes());
+        bsto.save(new Key.From("foo/bar/sub/go.mod"), "module example.com/foo/bar/sub".getBytes());
+        final ModuleArchive archive = new ModuleArchive(
+            new RxStorageWrapper(storage), "foo/bar/", "example.com/foo/bar@v0.0.1",
+            ArchiveOptions.DEFAULT.withPrefetch(prefetch), new GoMod("example.com/foo/bar")
+        );
+        archive.flow().blockingSubscribe();
+        MatcherAssert.assertThat(
+            new String(
+                new Remaining(Goproxy.readCompletely(archive.mod()).blockingGet()).bytes(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("module example.com/foo/bar")
+        );
+    }
+
+    @Test
+    void failsWithoutRequiredGoMod() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(new Key.From("foo/bar/a.go"), "package bar".getBytes());
+        MatcherAssert.assertThat(
+            new ModuleArchive(
+                new RxStorageWrapper(storage), "foo/bar/", "example.com/foo/bar@v0.0.1",
+                ArchiveOptions.DEFAULT, new GoMod("example.com/foo/bar")
+            ).flow().ignoreElements().blockingGet(),
+            Matchers.instanceOf(ValueNotFoundException.class)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void reusesCachedEntries(final boolean parallel) throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final String big = ModuleArchiveTest.source(10_000);
+        bsto.save(new Key.From("foo/a.go"), "package a".getBytes());
+        bsto.save(new Key.From("foo/big.go"), big.getBytes());
+        ArchiveOptions options = ArchiveOptions.DEFAULT.withEntryCache();
+        if (parallel) {
+            options = options.withParallelDeflate(1, 2);
+        }
+        final RxStorageWrapper rxsto = new RxStorageWrapper(storage);
+        final Optional<EntryCache> cache = Optional.of(new EntryCache(rxsto, "example.com/foo"));
+        MatcherAssert.assertThat(
+            "First version is not archived",
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    rxsto, "foo/", "example.com/foo@v1.0.0", options, new GoMod(), cache
+                ).flow()
+            ),
+            Matchers.hasEntry("example.com/foo@v1.0.0/big.go", big)
+        );
+        final Key dir = new Key.From("example.com/foo/@deflated");
+        for (final Key key : bsto.list(dir)) {
+            if (new EntryCache.Deflated(bsto.value(key)).size() == big.length()) {
+                bsto.save(key, ModuleArchiveTest.deflated("package cached"));
+            }
+        }
+        bsto.save(new Key.From("foo/a.go"), "package changed".getBytes());
+        MatcherAssert.assertThat(
+            "Cached entry is not copied or changed file is not compressed",
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    rxsto, "foo/", "example.com/foo@v1.0.1", options, new GoMod(), cache
+                ).flow()
+            ),
+            Matchers.allOf(
+                Matchers.hasEntry("example.com/foo@v1.0.1/big.go", "package cached"),
+                Matchers.hasEntry("example.com/foo@v1.0.1/a.go", "package changed")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Changed file is not cached",
+            bsto.list(dir),
+            Matchers.hasSize(3)
+        );
+    }
+
+    @Test
+    void archivesEmptySources() throws Exception {
+        MatcherAssert.assertThat(
+            ModuleArchiveTest.unzip(
+                new ModuleArchive(
+                    new RxStorageWrapper(new InMemoryStorage()), "empty/", "example.com/empty@v1"
+                ).flow()
+            ).entrySet(),
+            Matchers.empty()
+        );
+    }
+
+    /**
+     * Read all ZIP entries.
+     * @param zip ZIP bytes
+     * @return Map of entry names to entry contents
+     * @throws Exception On error
+     */
+    static Map<String, String> unzip(final Flowable<ByteBuffer> zip)
+        throws Exception {
+        final Map<String, String> res = new LinkedHashMap<>();
+        try (ZipInputStream input = new ZipInputStream(
+            new ByteArrayInputStream(ModuleArchiveTest.bytes(zip))
+        )) {
+            ZipEntry entry = input.getNextEntry();
+            while (entry != null) {
+                final ByteArrayOutputStream content = new ByteArrayOutputStream();
+                final byte[] buf = new byte[Short.MAX_VALUE];
+                int read = input.read(buf);
+                while (read > 0) {
+                    content.write(buf, 0, read);
+                    read = input.read(buf);
+                }
+                res.put(entry.getName(), new String(content.toByteArray(), StandardCharsets.UTF_8));
+                entry = input.getNextEntry();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Read all archive bytes.
+     * @param zip ZIP bytes publisher
+     * @return Bytes
+     * @throws Exception On error
+     */
+    static byte[] bytes(final Flowable<ByteBuffer> zip) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (final ByteBuffer buffer : zip.blockingIterable()) {
+            bytes.write(new Remaining(buffer).bytes());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Cached entry of the text.
+     * @param text Text
+     * @return Cached entry bytes
+     */
+    private static byte[] deflated(final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        deflater.setInput(bytes);
+        deflater.finish();
+        final byte[] buf = new byte[Short.MAX_VALUE];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        return new EntryCache.Deflated(crc.getValue(), bytes.length, out.toByteArray()).bytes();
+    }
+
+    /**
+     * Generate compressible Go source.
+     * @param lines Lines count
+     * @return Source text
+     */
+    private static String source(final int lines) {
+        final StringBuilder res = new StringBuilder("package gen\n");
+        for (int num = 0; num < lines; num = num + 1) {
+            res.append("var v").append(num).append(" = ").append(num * 31 % 977).append('\n');
+        }
+        return res.toString();
+    }
+}
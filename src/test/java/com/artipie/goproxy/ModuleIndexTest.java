@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ModuleIndex}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class ModuleIndexTest {
+
+    @Test
+    void listsVersionsInSemanticOrder() {
+        MatcherAssert.assertThat(
+            ModuleIndexTest.index().list(),
+            Matchers.equalTo("v0.9.0\nv1.0.0\nv1.1.0-rc.1\nv1.2.0\nv1.10.0\n")
+        );
+    }
+
+    @Test
+    void findsVersionInfo() {
+        MatcherAssert.assertThat(
+            ModuleIndexTest.index().info("v1.2.0"),
+            Matchers.equalTo(
+                Optional.of("{\"Version\":\"v1.2.0\",\"Time\":\"2020-01-01T00:00:20Z\"}")
+            )
+        );
+    }
+
+    @Test
+    void doesNotFindMissingVersion() {
+        MatcherAssert.assertThat(
+            ModuleIndexTest.index().info("v1.3.0"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void doesNotRenderInfoWithUnknownTime() {
+        MatcherAssert.assertThat(
+            ModuleIndexTest.index().info("v0.9.0"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void choosesLatestRelease() {
+        MatcherAssert.assertThat(
+            ModuleIndexTest.index().latest(),
+            Matchers.equalTo(
+                Optional.of("{\"Version\":\"v1.10.0\",\"Time\":\"2020-01-01T00:00:30Z\"}")
+            )
+        );
+    }
+
+    @Test
+    void hasNoLatestVersionWhenEmpty() {
+        MatcherAssert.assertThat(
+            ModuleIndex.from(Collections.emptyList()).latest(),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void readsEntriesBack() {
+        MatcherAssert.assertThat(
+            new ModuleIndex(ModuleIndexTest.index().buffer()).entries().stream()
+                .map(ModuleIndex.Entry::version).collect(Collectors.toList()),
+            Matchers.contains("v0.9.0", "v1.0.0", "v1.1.0-rc.1", "v1.2.0", "v1.10.0")
+        );
+    }
+
+    @Test
+    void keepsTimeOfCanonicalInfoOnly() {
+        MatcherAssert.assertThat(
+            new Object[] {
+                ModuleIndex.from(
+                    Arrays.asList(
+                        ModuleIndex.Entry.parsed(
+                            "v1.0.0", "{\"Version\":\"v1.0.0\",\"Time\":\"2020-01-01T00:00:00Z\"}"
+                        ),
+                        ModuleIndex.Entry.parsed(
+                            "v2.0.0",
+                            "{\"Version\":\"v2.0.0\",\"Time\":\"2020-01-01T00:00:00.5Z\"}"
+                        ),
+                        ModuleIndex.Entry.parsed("v3.0.0", "{\"Version\":\"v3.0.0\"}")
+                    )
+                ).info("v1.0.0").isPresent(),
+                ModuleIndex.from(
+                    Arrays.asList(
+                        ModuleIndex.Entry.parsed(
+                            "v2.0.0",
+                            "{\"Version\":\"v2.0.0\",\"Time\":\"2020-01-01T00:00:00.5Z\"}"
+                        ),
+                        ModuleIndex.Entry.parsed("v3.0.0", "{\"Version\":\"v3.0.0\"}")
+                    )
+                ).latest().isPresent(),
+            },
+            Matchers.arrayContaining(true, false)
+        );
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> new ModuleIndex(ByteBuffer.wrap("v1.0.0\nv1.1.0\n".getBytes())).list()
+        );
+    }
+
+    /**
+     * Index of some versions.
+     * @return Index
+     */
+    private static ModuleIndex index() {
+        final long base = 1_577_836_800L;
+        return ModuleIndex.from(
+            Arrays.asList(
+                new ModuleIndex.Entry("v1.2.0", base + 20),
+                new ModuleIndex.Entry("v1.10.0", base + 30),
+                new ModuleIndex.Entry("v1.1.0-rc.1", base + 40),
+                new ModuleIndex.Entry("v1.0.0", base + 10),
+                new ModuleIndex.Entry("v0.9.0", Long.MIN_VALUE)
+            )
+        );
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.rx.RxStorageWrapper;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ModuleUpdates}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class ModuleUpdatesTest {
+
+    @Test
+    void keepsAllConcurrentVersions() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final ModuleUpdates updates = new ModuleUpdates(new RxStorageWrapper(storage));
+        final String[] versions = IntStream.range(0, 50)
+            .mapToObj(num -> String.format("v0.0.%d", num))
+            .toArray(String[]::new);
+        ModuleUpdatesTest.infos(storage, "example.com/concurrent", versions);
+        Flowable.fromArray(versions)
+            .flatMapCompletable(
+                version -> Completable.defer(
+                    () -> updates.add("example.com/concurrent", version)
+                ).subscribeOn(Schedulers.io())
+            ).blockingAwait();
+        MatcherAssert.assertThat(
+            Arrays.asList(
+                ModuleUpdatesTest.list(storage, "example.com/concurrent").split("\n")
+            ),
+            Matchers.containsInAnyOrder(versions)
+        );
+        MatcherAssert.assertThat(
+            new String(
+                new BlockingStorage(storage).value(new Key.From("example.com/concurrent/@latest"))
+            ),
+            Matchers.equalTo(ModuleUpdatesTest.info("v0.0.49"))
+        );
+    }
+
+    @Test
+    void updatesDifferentModules() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final ModuleUpdates updates = new ModuleUpdates(new RxStorageWrapper(storage));
+        ModuleUpdatesTest.infos(storage, "example.com/one", "v1.0.0", "v1.0.1");
+        ModuleUpdatesTest.infos(storage, "example.com/two", "v2.0.0");
+        Completable.mergeArray(
+            updates.add("example.com/one", "v1.0.0"),
+            updates.add("example.com/two", "v2.0.0"),
+            updates.add("example.com/one", "v1.0.1")
+        ).blockingAwait();
+        MatcherAssert.assertThat(
+            Arrays.asList(
+                ModuleUpdatesTest.list(storage, "example.com/one"),
+                ModuleUpdatesTest.list(storage, "example.com/two")
+            ),
+            Matchers.contains("v1.0.0\nv1.0.1", "v2.0.0")
+        );
+    }
+
+    @Test
+    void addsVersionsAtOnce() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        ModuleUpdatesTest.infos(storage, "example.com/batch", "v1.0.0", "v1.1.0", "v0.9.0");
+        new ModuleUpdates(new RxStorageWrapper(storage))
+            .add("example.com/batch", Arrays.asList("v1.0.0", "v1.1.0", "v0.9.0"))
+            .blockingAwait();
+        MatcherAssert.assertThat(
+            "Wrong list",
+            Arrays.asList(ModuleUpdatesTest.list(storage, "example.com/batch").split("\n")),
+            Matchers.containsInAnyOrder("v1.0.0", "v1.1.0", "v0.9.0")
+        );
+        MatcherAssert.assertThat(
+            "Wrong latest version",
+            new String(
+                new BlockingStorage(storage).value(new Key.From("example.com/batch/@latest"))
+            ),
+            Matchers.equalTo(ModuleUpdatesTest.info("v1.1.0"))
+        );
+    }
+
+    @Test
+    void reportsFailedUpdateOnce() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("example.com/failed", ModuleIndex.FILE), "corrupted".getBytes()
+        );
+        final List<Throwable> undelivered = new CopyOnWriteArrayList<>();
+        RxJavaPlugins.setErrorHandler(undelivered::add);
+        try {
+            final Throwable err = new ModuleUpdates(new RxStorageWrapper(storage))
+                .add("example.com/failed", Arrays.asList("v1.0.0", "v1.0.1", "v1.0.2"))
+                .blockingGet();
+            MatcherAssert.assertThat("Update did not fail", err, Matchers.notNullValue());
+        } finally {
+            RxJavaPlugins.reset();
+        }
+        MatcherAssert.assertThat("Undeliverable errors", undelivered, Matchers.empty());
+    }
+
+    /**
+     * Save info files of the versions.
+     * @param storage Storage
+     * @param module Module path
+     * @param versions Versions
+     * @throws InterruptedException On error
+     */
+    private static void infos(final InMemoryStorage storage, final String module,
+        final String... versions) throws InterruptedException {
+        for (final String version : versions) {
+            new BlockingStorage(storage).save(
+                new Key.From(module, "@v", String.format("%s.info", version)),
+                ModuleUpdatesTest.info(version).getBytes()
+            );
+        }
+    }
+
+    /**
+     * Info file of the version.
+     * @param version Version
+     * @return Info JSON
+     */
+    private static String info(final String version) {
+        return String.format("{\"Version\":\"%s\"}", version);
+    }
+
+    /**
+     * Read versions list of the module.
+     * @param storage Storage
+     * @param module Module path
+     * @return List text
+     * @throws InterruptedException On error
+     */
+    private static String list(final InMemoryStorage storage, final String module)
+        throws InterruptedException {
+        return new String(
+            new BlockingStorage(storage).value(new Key.From(module, "@v", "list"))
+        );
+    }
+}
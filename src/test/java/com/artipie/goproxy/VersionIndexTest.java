@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.rx.RxStorageWrapper;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link VersionIndex}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class VersionIndexTest {
+
+    /**
+     * Info of version 1.0.0.
+     */
+    private static final String FIRST =
+        "{\"Version\":\"v1.0.0\",\"Time\":\"2020-01-01T00:00:00Z\"}";
+
+    /**
+     * Info of version 1.1.0.
+     */
+    private static final String SECOND =
+        "{\"Version\":\"v1.1.0\",\"Time\":\"2020-02-01T00:00:00Z\"}";
+
+    @Test
+    void indexesListedVersions() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("example.com/foo/@v/list"), "v1.1.0\nv1.0.0\n".getBytes());
+        bsto.save(
+            new Key.From("example.com/foo/@v/v1.0.0.info"), VersionIndexTest.FIRST.getBytes()
+        );
+        bsto.save(
+            new Key.From("example.com/foo/@v/v1.1.0.info"), VersionIndexTest.SECOND.getBytes()
+        );
+        new VersionIndex(new RxStorageWrapper(storage), "example.com/foo")
+            .add(Collections.emptyList())
+            .blockingAwait();
+        final ModuleIndex index = new ModuleIndex(
+            ByteBuffer.wrap(bsto.value(new Key.From("example.com/foo/@index")))
+        );
+        MatcherAssert.assertThat(
+            new Object[] {index.list(), index.info("v1.0.0"), index.latest()},
+            Matchers.arrayContaining(
+                "v1.0.0\nv1.1.0\n",
+                Optional.of(VersionIndexTest.FIRST),
+                Optional.of(VersionIndexTest.SECOND)
+            )
+        );
+    }
+
+    @Test
+    void keepsIndexedVersions() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(
+            new Key.From("example.com/bar/@v/v1.0.0.info"), VersionIndexTest.FIRST.getBytes()
+        );
+        new VersionIndex(new RxStorageWrapper(storage), "example.com/bar")
+            .add(Collections.singleton("v1.0.0"))
+            .blockingAwait();
+        bsto.delete(new Key.From("example.com/bar/@v/v1.0.0.info"));
+        bsto.save(
+            new Key.From("example.com/bar/@v/v1.1.0.info"), VersionIndexTest.SECOND.getBytes()
+        );
+        new VersionIndex(new RxStorageWrapper(storage), "example.com/bar")
+            .add(Collections.singleton("v1.1.0"))
+            .blockingAwait();
+        MatcherAssert.assertThat(
+            new ModuleIndex(
+                ByteBuffer.wrap(bsto.value(new Key.From("example.com/bar/@index")))
+            ).info("v1.0.0"),
+            Matchers.equalTo(Optional.of(VersionIndexTest.FIRST))
+        );
+    }
+
+    @Test
+    void appendsToListInPublishOrder() throws Exception {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(
+            new Key.From("example.com/baz/@v/v1.1.0.info"), VersionIndexTest.SECOND.getBytes()
+        );
+        new VersionIndex(new RxStorageWrapper(storage), "example.com/baz")
+            .add(Collections.singleton("v1.1.0"))
+            .blockingAwait();
+        bsto.save(
+            new Key.From("example.com/baz/@v/v1.0.0.info"), VersionIndexTest.FIRST.getBytes()
+        );
+        new VersionIndex(new RxStorageWrapper(storage), "example.com/baz")
+            .add(Collections.singleton("v1.0.0"))
+            .blockingAwait();
+        MatcherAssert.assertThat(
+            new String[] {
+                new String(bsto.value(new Key.From("example.com/baz/@v/list"))),
+                new String(bsto.value(new Key.From("example.com/baz/@latest"))),
+            },
+            Matchers.arrayContaining("v1.1.0\nv1.0.0", VersionIndexTest.SECOND)
+        );
+    }
+}
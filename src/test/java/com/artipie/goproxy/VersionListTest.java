@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.rx.RxStorageWrapper;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link VersionList}.
+ *
+ * @since 0.4
+ */
+final class VersionListTest {
+
+    /**
+     * List key.
+     */
+    private static final Key KEY = new Key.From("example.com/foo/@v/list");
+
+    /**
+     * Test storage.
+     */
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+    }
+
+    @Test
+    void createsList() throws Exception {
+        this.list().add(Arrays.asList("v0.0.1", "v0.0.2")).blockingAwait();
+        MatcherAssert.assertThat(this.text(), new IsEqual<>("v0.0.1\nv0.0.2"));
+    }
+
+    @Test
+    void appendsToExistingList() throws Exception {
+        new BlockingStorage(this.storage).save(VersionListTest.KEY, "v1.0.0\nv1.1.0".getBytes());
+        this.list().add(Collections.singleton("v1.2.0")).blockingAwait();
+        MatcherAssert.assertThat(this.text(), new IsEqual<>("v1.0.0\nv1.1.0\nv1.2.0"));
+    }
+
+    @Test
+    void appendsAfterTrailingNewline() throws Exception {
+        new BlockingStorage(this.storage).save(VersionListTest.KEY, "v1.0.0\n".getBytes());
+        this.list().add(Collections.singleton("v1.0.1")).blockingAwait();
+        MatcherAssert.assertThat(this.text(), new IsEqual<>("v1.0.0\nv1.0.1"));
+    }
+
+    @Test
+    void skipsListedVersions() throws Exception {
+        new BlockingStorage(this.storage).save(
+            VersionListTest.KEY, "v0.1.0\r\nv0.10.0\nv0.2.0".getBytes()
+        );
+        this.list().add(Arrays.asList("v0.10.0", "v0.1.0", "v0.3.0", "v0.2.0"))
+            .blockingAwait();
+        MatcherAssert.assertThat(
+            this.text(), new IsEqual<>("v0.1.0\r\nv0.10.0\nv0.2.0\nv0.3.0")
+        );
+    }
+
+    /**
+     * Versions list of the test module.
+     * @return Versions list
+     */
+    private VersionList list() {
+        return new VersionList(new RxStorageWrapper(this.storage), "example.com/foo");
+    }
+
+    /**
+     * List file text.
+     * @return Text
+     * @throws Exception On error
+     */
+    private String text() throws Exception {
+        return new String(new BlockingStorage(this.storage).value(VersionListTest.KEY));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.goproxy;
+
+import com.artipie.asto.Remaining;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link ZipWriter}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class ZipWriterTest {
+
+    @Test
+    void writesCentralDirectory(@TempDir final Path dir) throws Exception {
+        final byte[] data = "package zip".getBytes(StandardCharsets.UTF_8);
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        final ZipWriter writer = new ZipWriter();
+        final LocalDateTime time = LocalDateTime.of(2020, 2, 20, 10, 30);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipWriterTest.write(out, writer.stored("zip/zip.go", time, crc.getValue(), data.length));
+        ZipWriterTest.write(out, writer.data(data));
+        ZipWriterTest.write(out, writer.close(crc.getValue(), data.length));
+        ZipWriterTest.write(out, writer.finish());
+        final Path file = dir.resolve("test.zip");
+        Files.write(file, out.toByteArray());
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            final ZipEntry entry = zip.getEntry("zip/zip.go");
+            MatcherAssert.assertThat(
+                "Wrong entry",
+                entry.getCrc(),
+                Matchers.equalTo(crc.getValue())
+            );
+            try (InputStream input = zip.getInputStream(entry)) {
+                final byte[] read = new byte[data.length];
+                MatcherAssert.assertThat(
+                    "Wrong size",
+                    input.read(read),
+                    Matchers.equalTo(data.length)
+                );
+                MatcherAssert.assertThat(
+                    "Wrong content",
+                    read,
+                    Matchers.equalTo(data)
+                );
+            }
+        }
+    }
+
+    /**
+     * Write buffer to the stream.
+     * @param out Output stream
+     * @param buffer Buffer
+     */
+    private static void write(final ByteArrayOutputStream out, final ByteBuffer buffer) {
+        final byte[] bytes = new Remaining(buffer).bytes();
+        out.write(bytes, 0, bytes.length);
+    }
+}
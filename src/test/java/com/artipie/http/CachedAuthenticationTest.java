@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.auth.Authentication;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CachedAuthentication}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class CachedAuthenticationTest {
+
+    @Test
+    void checksCredentialsOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            CachedAuthenticationTest.origin(calls), 10, Duration.ofMinutes(1)
+        );
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            new Object[] {auth.user("alice", "secret"), calls.get()},
+            Matchers.arrayContaining(Optional.of(new Authentication.User("alice")), 1)
+        );
+    }
+
+    @Test
+    void checksOtherCredentials() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            CachedAuthenticationTest.origin(calls), 10, Duration.ofMinutes(1)
+        );
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            new Object[] {auth.user("alice", "wrong"), calls.get()},
+            Matchers.arrayContaining(Optional.empty(), 2)
+        );
+    }
+
+    @Test
+    void doesNotMixNamesAndPasswords() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            (name, pass) -> {
+                calls.incrementAndGet();
+                return Optional.of(new Authentication.User(name));
+            },
+            10, Duration.ofMinutes(1)
+        );
+        auth.user("a:b", "c");
+        MatcherAssert.assertThat(
+            new Object[] {auth.user("a", "b:c"), calls.get()},
+            Matchers.arrayContaining(Optional.of(new Authentication.User("a")), 2)
+        );
+    }
+
+    @Test
+    void doesNotCacheFailedAttempts() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            CachedAuthenticationTest.origin(calls), 1, Duration.ofMinutes(1)
+        );
+        auth.user("alice", "secret");
+        auth.user("mallory", "guess");
+        auth.user("mallory", "guess");
+        MatcherAssert.assertThat(
+            new Object[] {auth.user("alice", "secret"), calls.get()},
+            Matchers.arrayContaining(Optional.of(new Authentication.User("alice")), 3)
+        );
+    }
+
+    /**
+     * Authentication of alice with password secret, counting calls.
+     * @param calls Calls counter
+     * @return Authentication
+     */
+    private static Authentication origin(final AtomicInteger calls) {
+        return (name, pass) -> {
+            calls.incrementAndGet();
+            final Optional<Authentication.User> res;
+            if ("alice".equals(name) && "secret".equals(pass)) {
+                res = Optional.of(new Authentication.User(name));
+            } else {
+                res = Optional.empty();
+            }
+            return res;
+        };
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.MemoryMetrics;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CachedSlice}.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class CachedSliceTest {
+
+    /**
+     * Request line.
+     */
+    private static final String LINE = "GET /example.com/foo/@v/list HTTP/1.1";
+
+    @Test
+    void servesFromCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Slice slice = new CachedSlice(
+            CachedSliceTest.counting(calls, RsStatus.OK),
+            new MetadataCache(1024, Duration.ofMinutes(1))
+        );
+        CachedSliceTest.send(slice);
+        MatcherAssert.assertThat(
+            "Wrong body",
+            slice.response(CachedSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("v1".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat("Origin was called twice", calls.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    void reloadsAfterUpdate() {
+        final AtomicInteger calls = new AtomicInteger();
+        final MetadataCache cache = new MetadataCache(1024, Duration.ofMinutes(1));
+        final Slice slice = new CachedSlice(
+            CachedSliceTest.counting(calls, RsStatus.OK), cache
+        );
+        CachedSliceTest.send(slice);
+        cache.updated("example.com/foo");
+        MatcherAssert.assertThat(
+            slice.response(CachedSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("v2".getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void doesNotCacheErrors() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Slice slice = new CachedSlice(
+            CachedSliceTest.counting(calls, RsStatus.NOT_FOUND),
+            new MetadataCache(1024, Duration.ofMinutes(1))
+        );
+        CachedSliceTest.send(slice);
+        MatcherAssert.assertThat(
+            "Wrong status",
+            slice.response(CachedSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+        MatcherAssert.assertThat("Error was cached", calls.get(), Matchers.equalTo(2));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        final Slice slice = new CachedSlice(
+            CachedSliceTest.counting(new AtomicInteger(), RsStatus.OK),
+            new MetadataCache(1024, Duration.ofMinutes(1)),
+            metrics
+        );
+        CachedSliceTest.send(slice);
+        CachedSliceTest.send(slice);
+        CachedSliceTest.send(slice);
+        MatcherAssert.assertThat(
+            new long[] {metrics.counter("cache.hits"), metrics.counter("cache.misses")},
+            Matchers.equalTo(new long[] {2, 1})
+        );
+    }
+
+    /**
+     * Send request and read the response.
+     * @param slice Slice
+     */
+    private static void send(final Slice slice) {
+        slice.response(CachedSliceTest.LINE, Headers.EMPTY, Flowable.empty()).send(
+            (status, headers, body) -> {
+                final CompletableFuture<Void> done = new CompletableFuture<>();
+                Flowable.fromPublisher(body).ignoreElements().subscribe(
+                    () -> done.complete(null), done::completeExceptionally
+                );
+                return done;
+            }
+        ).toCompletableFuture().join();
+    }
+
+    /**
+     * Slice counting calls and responding with call number in the body.
+     * @param calls Calls counter
+     * @param status Response status
+     * @return Slice
+     */
+    private static Slice counting(final AtomicInteger calls, final RsStatus status) {
+        return (line, headers, body) -> new RsWithStatus(
+            new RsFull(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.just(
+                    ByteBuffer.wrap(
+                        String.format("v%d", calls.incrementAndGet())
+                            .getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            ),
+            status
+        );
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Remaining;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CoalescingSlice}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class CoalescingSliceTest {
+
+    /**
+     * Request line.
+     */
+    private static final String LINE = "GET /example.com/foo/@v/v1.0.0.zip HTTP/1.1";
+
+    @Test
+    void callsOriginOnceForConcurrentRequests() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final Slice slice = new CoalescingSlice(
+            (line, headers, body) -> {
+                calls.incrementAndGet();
+                return connection -> gate.thenCompose(
+                    nothing -> new RsFull(
+                        RsStatus.OK, Headers.EMPTY,
+                        Flowable.just(
+                            ByteBuffer.wrap("zip".getBytes(StandardCharsets.UTF_8))
+                        )
+                    ).send(connection)
+                );
+            }
+        );
+        final CompletableFuture<String> first = CoalescingSliceTest.text(
+            slice.response(CoalescingSliceTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        final CompletableFuture<String> second = CoalescingSliceTest.text(
+            slice.response(CoalescingSliceTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        gate.complete(null);
+        MatcherAssert.assertThat(
+            "Wrong bodies",
+            Arrays.asList(first.join(), second.join()),
+            Matchers.everyItem(Matchers.equalTo("zip"))
+        );
+        MatcherAssert.assertThat("Origin called twice", calls.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    void callsOriginAgainWhenResponseIsRead() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Slice slice = new CoalescingSlice(
+            (line, headers, body) -> new RsFull(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.just(
+                    ByteBuffer.wrap(
+                        String.valueOf(calls.incrementAndGet()).getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            )
+        );
+        slice.response(CoalescingSliceTest.LINE, Headers.EMPTY, Flowable.empty())
+            .send((status, headers, body) -> CompletableFuture.allOf());
+        MatcherAssert.assertThat(
+            slice.response(CoalescingSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("2".getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Response body text.
+     * @param response Response
+     * @return Body text when it's read
+     */
+    private static CompletableFuture<String> text(final Response response) {
+        final CompletableFuture<String> res = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> {
+                final StringBuilder text = new StringBuilder();
+                Flowable.fromPublisher(body).subscribe(
+                    buf -> text.append(
+                        new String(new Remaining(buf).bytes(), StandardCharsets.UTF_8)
+                    ),
+                    res::completeExceptionally,
+                    () -> res.complete(text.toString())
+                );
+                return res.thenAccept(txt -> { });
+            }
+        );
+        return res;
+    }
+}
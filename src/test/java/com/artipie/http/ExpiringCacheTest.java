@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ExpiringCache}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class ExpiringCacheTest {
+
+    @Test
+    void loadsValueOnce() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(
+            2, Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        cache.value("one", key -> loads.incrementAndGet());
+        MatcherAssert.assertThat(
+            cache.value("one", key -> loads.incrementAndGet()),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    void reloadsExpiredValue() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(
+            2, Duration.ZERO, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC)
+        );
+        cache.value("two", key -> loads.incrementAndGet());
+        MatcherAssert.assertThat(
+            cache.value("two", key -> loads.incrementAndGet()),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(
+            2, Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        cache.value("a", key -> loads.incrementAndGet());
+        cache.value("b", key -> loads.incrementAndGet());
+        cache.value("a", key -> loads.incrementAndGet());
+        cache.value("c", key -> loads.incrementAndGet());
+        MatcherAssert.assertThat(
+            new int[] {
+                cache.value("a", key -> loads.incrementAndGet()),
+                cache.value("b", key -> loads.incrementAndGet()),
+            },
+            Matchers.equalTo(new int[] {1, 4})
+        );
+    }
+
+    @Test
+    void returnsPutValueUntilExpired() {
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(
+            2, Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        cache.put("d", 1);
+        MatcherAssert.assertThat(
+            new Object[] {cache.cached("d"), cache.cached("e")},
+            Matchers.arrayContaining(Optional.of(1), Optional.empty())
+        );
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link FileSlice}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class FileSliceTest {
+
+    @Test
+    void servesFileInRegions(@TempDir final Path dir) throws Exception {
+        final String content = "module archive content";
+        final Path file = dir.resolve("example.com/foo/@v/v1.0.0.zip");
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            new FileSlice(dir, 5, Runnable::run).response(
+                "GET /example.com/foo/@v/v1.0.0.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody(content, StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void servesEmptyFile(@TempDir final Path dir) throws Exception {
+        Files.write(dir.resolve("empty.zip"), new byte[0]);
+        MatcherAssert.assertThat(
+            new FileSlice(dir, 5, Runnable::run).response(
+                "GET /empty.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody(new byte[0])
+        );
+    }
+
+    @Test
+    void returnsNotFoundForMissingFile(@TempDir final Path dir) {
+        MatcherAssert.assertThat(
+            new FileSlice(dir, 5, Runnable::run).response(
+                "GET /example.com/foo/@v/v1.0.0.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void doesNotServeFilesOutOfDirectory(@TempDir final Path root) throws Exception {
+        final Path dir = root.resolve("repo");
+        Files.createDirectories(dir);
+        Files.write(root.resolve("secret.zip"), new byte[] {1});
+        MatcherAssert.assertThat(
+            new FileSlice(dir, 5, Runnable::run).response(
+                "GET /../secret.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void servesChangedFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("v1.0.0.info");
+        Files.write(file, "first".getBytes(StandardCharsets.UTF_8));
+        final FileSlice slice = new FileSlice(dir, 5, Runnable::run);
+        MatcherAssert.assertThat(
+            slice.response("GET /v1.0.0.info HTTP/1.1", Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("first", StandardCharsets.UTF_8)
+        );
+        Files.write(file, "second content".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            slice.response("GET /v1.0.0.info HTTP/1.1", Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("second content", StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void servesFileRepeatedly(@TempDir final Path dir) throws Exception {
+        final String content = "the same archive";
+        Files.write(dir.resolve("v1.zip"), content.getBytes(StandardCharsets.UTF_8));
+        final FileSlice slice = new FileSlice(dir, 3, Runnable::run);
+        for (int num = 0; num < 3; num = num + 1) {
+            MatcherAssert.assertThat(
+                slice.response("GET /v1.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()),
+                new RsHasBody(content, StandardCharsets.UTF_8)
+            );
+        }
+    }
+
+    @Test
+    void mapsFilesOnExecutor(@TempDir final Path dir) throws Exception {
+        Files.write(dir.resolve("v2.zip"), "zip".getBytes(StandardCharsets.UTF_8));
+        final AtomicInteger tasks = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Wrong body",
+            new FileSlice(
+                dir, 5,
+                task -> {
+                    tasks.incrementAndGet();
+                    task.run();
+                }
+            ).response("GET /v2.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("zip", StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat("File was not mapped on executor", tasks.get(), Matchers.is(1));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link GoPath}.
+ * @since 0.4
+ * @checkstyle ParameterNumberCheck (500 lines)
+ */
+final class GoPathTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "example.com/foo/@v/v1.0.0.info,INFO,example.com/foo,v1.0.0",
+        "/example.com/foo/@v/v1.0.0.mod,MOD,example.com/foo,v1.0.0",
+        "example.com/foo/@v/v1.0.0-rc.1.zip,ZIP,example.com/foo,v1.0.0-rc.1",
+        "/example.com/foo/@v/list,LIST,example.com/foo,''",
+        "example.com/foo/bar/@latest,LATEST,example.com/foo/bar,''",
+        "/lookup/example.com/foo@v0.1.0,LOOKUP,example.com/foo,v0.1.0"
+    })
+    void parsesPath(final String path, final GoPath.Kind kind, final String module,
+        final String version) {
+        final GoPath parsed = GoPath.parse(path);
+        MatcherAssert.assertThat(
+            new Object[] {parsed.kind(), parsed.module(), parsed.version()},
+            Matchers.arrayContaining(kind, module, version)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", "/", "/@latest", "/@v/list", "/@v/v1.0.0.info", "example.com/foo/@v/1.0.0.zip",
+        "example.com/foo/@v/.zip", "example.com/foo/v1.0.0.mod", "example.com/foo/@v/v1.tar",
+        "/lookup/example.com/foo", "/lookup/example.com/foo@", "/lookup/@v1.0.0",
+        "/lookup/example.com/foo@v1/bar"
+    })
+    void doesNotParseOtherPath(final String path) {
+        MatcherAssert.assertThat(
+            GoPath.parse(path).kind(),
+            Matchers.equalTo(GoPath.Kind.UNKNOWN)
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/example.com/foo/@v/v1.0.0.zip,example.com/foo/@v/v1.0.0.zip",
+        "example.com/foo/@latest,example.com/foo/@latest",
+        "/example.com/foo/readme.txt,example.com/foo/readme.txt"
+    })
+    void resolvesKey(final String path, final String key) {
+        MatcherAssert.assertThat(
+            GoPath.parse(path).key().string(),
+            Matchers.equalTo(key)
+        );
+    }
+
+    @Test
+    void takesPathParsedByRoutes() {
+        final GoPath parsed = GoPath.parse("/example.com/foo/@v/list");
+        MatcherAssert.assertThat(
+            GoPath.from(
+                "GET /example.com/bar/@latest HTTP/1.1", new GoPath.Parsed(parsed, Headers.EMPTY)
+            ),
+            Matchers.sameInstance(parsed)
+        );
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.vertx.VertxSliceServer;
+import io.vertx.reactivex.core.Vertx;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link GoProxySlice} and {@link UpstreamSlice} with local upstream server.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.StaticAccessToStaticFields"})
+final class GoProxySliceTest {
+
+    /**
+     * Vertx instance.
+     */
+    private static final Vertx VERTX = Vertx.vertx();
+
+    /**
+     * Upstream server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Upstream URI.
+     */
+    private URI upstream;
+
+    @BeforeEach
+    void init() throws Exception {
+        final Storage remote = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(remote);
+        bsto.save(
+            new Key.From("example.com/foo/@v/v1.0.0.zip"),
+            "zip bytes".getBytes(StandardCharsets.UTF_8)
+        );
+        bsto.save(
+            new Key.From("example.com/foo/@v/list"), "v1.0.0".getBytes(StandardCharsets.UTF_8)
+        );
+        this.server = new VertxSliceServer(GoProxySliceTest.VERTX, new GoSlice(remote));
+        this.upstream = URI.create(String.format("http://localhost:%d", this.server.start()));
+    }
+
+    @AfterEach
+    void stop() {
+        this.server.stop();
+    }
+
+    @AfterAll
+    static void close() {
+        GoProxySliceTest.VERTX.close();
+    }
+
+    @Test
+    void pullsZipThroughAndSavesIt() throws Exception {
+        final Storage local = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            "Wrong response",
+            new GoProxySlice(this.upstream, local),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasBody("zip bytes".getBytes(StandardCharsets.UTF_8))
+                ),
+                new RequestLine("GET", "/example.com/foo/@v/v1.0.0.zip")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Zip is not saved",
+            new String(
+                new BlockingStorage(local).value(new Key.From("example.com/foo/@v/v1.0.0.zip")),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("zip bytes")
+        );
+    }
+
+    @Test
+    void servesSavedZipWhenUpstreamIsDown() throws Exception {
+        final Storage local = new InMemoryStorage();
+        final Slice slice = new GoProxySlice(this.upstream, local);
+        MatcherAssert.assertThat(
+            "Zip is not pulled",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody("zip bytes".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine("GET", "/example.com/foo/@v/v1.0.0.zip")
+            )
+        );
+        this.server.stop();
+        MatcherAssert.assertThat(
+            "Saved zip is not served",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody("zip bytes".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine("GET", "/example.com/foo/@v/v1.0.0.zip")
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForMissingModule() {
+        MatcherAssert.assertThat(
+            new GoProxySlice(this.upstream, new InMemoryStorage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine("GET", "/example.com/bar/@v/v1.0.0.mod")
+            )
+        );
+    }
+
+    @Test
+    void readsUpstreamResponse() {
+        MatcherAssert.assertThat(
+            new UpstreamSlice(URI.create(String.format("%s/", this.upstream))),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasBody("v1.0.0".getBytes(StandardCharsets.UTF_8))
+                ),
+                new RequestLine("GET", "/example.com/foo/@v/list")
+            )
+        );
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.StandardRs;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link GoRoutes}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class GoRoutesTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"info", "mod", "zip", "list"})
+    void routesByKind(final String kind) {
+        MatcherAssert.assertThat(
+            GoRoutesTest.routes().response(
+                String.format("GET /example.com/foo/@v/%s HTTP/1.1", GoRoutesTest.file(kind)),
+                Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody(kind, StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void passesParsedPath() {
+        MatcherAssert.assertThat(
+            new GoRoutes().with(
+                GoPath.Kind.ZIP,
+                (line, headers, body) -> new RsWithBody(
+                    StandardRs.EMPTY,
+                    GoPath.from("GET / HTTP/1.1", headers).version(),
+                    StandardCharsets.UTF_8
+                )
+            ).response(
+                "GET /example.com/foo/@v/v1.2.3.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody("v1.2.3", StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void answersNotFoundForUnknownPath() {
+        MatcherAssert.assertThat(
+            GoRoutesTest.routes().response(
+                "GET /example.com/foo/@v/v1.0.0.tar HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void answersNotFoundForKindWithoutRoute() {
+        MatcherAssert.assertThat(
+            GoRoutesTest.routes().response(
+                "GET /example.com/foo/@latest HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    @Test
+    void answersNotFoundForOtherMethods() {
+        MatcherAssert.assertThat(
+            GoRoutesTest.routes().response(
+                "PUT /example.com/foo/@v/v1.0.0.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    /**
+     * Routes answering with the kind name.
+     * @return Routes
+     */
+    private static Slice routes() {
+        return new GoRoutes()
+            .with(GoPath.Kind.INFO, GoRoutesTest.answer("info"))
+            .with(GoPath.Kind.MOD, GoRoutesTest.answer("mod"))
+            .with(GoPath.Kind.ZIP, GoRoutesTest.answer("zip"))
+            .with(GoPath.Kind.LIST, GoRoutesTest.answer("list"));
+    }
+
+    /**
+     * Slice answering with the text.
+     * @param text Text
+     * @return Slice
+     */
+    private static Slice answer(final String text) {
+        return (line, headers, body) -> new RsWithBody(
+            StandardRs.EMPTY, text, StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Requested file of the kind.
+     * @param kind Kind
+     * @return File name
+     */
+    private static String file(final String kind) {
+        final String res;
+        if ("list".equals(kind)) {
+            res = kind;
+        } else {
+            res = String.format("v1.0.0.%s", kind);
+        }
+        return res;
+    }
+}
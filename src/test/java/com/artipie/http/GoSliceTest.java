@@ -24,8 +24,11 @@
 package com.artipie.http;
 
 import com.artipie.asto.Content;
+import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
 import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.goproxy.Goproxy;
 import com.artipie.http.auth.Authentication;
 import com.artipie.http.auth.BasicIdentities;
 import com.artipie.http.auth.Identities;
@@ -38,14 +41,33 @@ import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.slice.KeyFromPath;
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.cactoos.list.ListOf;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.AllOf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -53,6 +75,8 @@ import org.junit.jupiter.params.provider.ValueSource;
  * Test for {@link GoSlice}.
  * @since 0.3
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
  */
 @SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
 class GoSliceTest {
@@ -62,6 +86,16 @@ class GoSliceTest {
      */
     private static final Pair<String, String> USER = new ImmutablePair<>("Alladin", "openSesame");
 
+    /**
+     * Cache control of versioned artifacts.
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * Cache control of versions list and latest version.
+     */
+    private static final String MUTABLE = "public, max-age=60";
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void returnsInfo(final boolean anonymous) throws Exception {
@@ -70,7 +104,7 @@ class GoSliceTest {
         MatcherAssert.assertThat(
             this.slice(GoSliceTest.storage(path, body), anonymous),
             new SliceHasResponse(
-                matchers(body, "application/json"), GoSliceTest.line(path),
+                matchers(body, "application/json", GoSliceTest.IMMUTABLE), GoSliceTest.line(path),
                 this.headers(anonymous), Content.EMPTY
             )
         );
@@ -84,7 +118,7 @@ class GoSliceTest {
         MatcherAssert.assertThat(
             this.slice(GoSliceTest.storage(path, body), anonymous),
             new SliceHasResponse(
-                matchers(body, "text/plain"), GoSliceTest.line(path),
+                matchers(body, "text/plain", GoSliceTest.IMMUTABLE), GoSliceTest.line(path),
                 this.headers(anonymous), Content.EMPTY
             )
         );
@@ -98,12 +132,70 @@ class GoSliceTest {
         MatcherAssert.assertThat(
             this.slice(GoSliceTest.storage(path, body), anonymous),
             new SliceHasResponse(
-                matchers(body, "application/zip"), GoSliceTest.line(path),
+                new AllOf<>(
+                    new ListOf<Matcher<? super Response>>(
+                        new RsHasBody(body.getBytes()),
+                        new RsHasHeaders(
+                            new MapEntry<>("content-type", "application/zip"),
+                            new MapEntry<>("Cache-Control", GoSliceTest.IMMUTABLE),
+                            new MapEntry<>("Accept-Ranges", "none")
+                        )
+                    )
+                ),
+                GoSliceTest.line(path),
                 this.headers(anonymous), Content.EMPTY
             )
         );
     }
 
+    @Test
+    void returnsZipFromLocalStorage(@TempDir final Path dir) throws Exception {
+        final String path = "example.com/local/@v/v1.0.0.zip";
+        final String body = "local";
+        final Storage storage = new LocalStorage(dir);
+        storage.save(new KeyFromPath(path), new Content.From(body.getBytes())).get();
+        MatcherAssert.assertThat(
+            this.slice(storage, true),
+            new SliceHasResponse(
+                new AllOf<>(
+                    new ListOf<Matcher<? super Response>>(
+                        new RsHasBody(body.getBytes()),
+                        new RsHasHeaders(
+                            new MapEntry<>("content-type", "application/zip"),
+                            new MapEntry<>("Cache-Control", GoSliceTest.IMMUTABLE),
+                            new MapEntry<>("Accept-Ranges", "none")
+                        )
+                    )
+                ),
+                GoSliceTest.line(path), Headers.EMPTY, Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void streamsLargeZipWithoutBuffering() throws Exception {
+        final AtomicInteger generated = new AtomicInteger();
+        final Storage storage = new EndlessZips(generated);
+        final String path = "example.com/large/@v/v1.0.0.zip";
+        storage.save(new KeyFromPath(path), new Content.From(new byte[0])).get();
+        final TestSubscriber<ByteBuffer> client = new TestSubscriber<>(1L);
+        this.slice(storage, true).response(
+            GoSliceTest.line(path).toString(), Headers.EMPTY, Flowable.empty()
+        ).send(
+            (status, headers, body) -> {
+                Flowable.fromPublisher(body).subscribe(client);
+                return CompletableFuture.allOf();
+            }
+        ).toCompletableFuture().get();
+        client.awaitCount(1);
+        client.cancel();
+        MatcherAssert.assertThat(
+            "Archive is read ahead of the client",
+            generated.get(),
+            Matchers.lessThan(EndlessZips.CHUNKS / 4)
+        );
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void returnsList(final boolean anonymous) throws Exception {
@@ -112,7 +204,7 @@ class GoSliceTest {
         MatcherAssert.assertThat(
             this.slice(GoSliceTest.storage(path, body), anonymous),
             new SliceHasResponse(
-                matchers(body, "text/plain"), GoSliceTest.line(path),
+                matchers(body, "text/plain", GoSliceTest.MUTABLE), GoSliceTest.line(path),
                 this.headers(anonymous), Content.EMPTY
             )
         );
@@ -139,13 +231,85 @@ class GoSliceTest {
         MatcherAssert.assertThat(
             this.slice(GoSliceTest.storage("example.com/latest/bar/@v/v1.1.info", body), anonymous),
             new SliceHasResponse(
-                matchers(body, "application/json"),
+                matchers(body, "application/json", GoSliceTest.MUTABLE),
                 GoSliceTest.line("example.com/latest/bar/@latest"),
                 this.headers(anonymous), Content.EMPTY
             )
         );
     }
 
+    @Test
+    void servesUpdatedListWithCache() throws Exception {
+        final String path = "example.com/cached/@v/list";
+        final Storage storage = GoSliceTest.storage(path, "v1.0.0");
+        final MetadataCache cache = new MetadataCache(1024, Duration.ofMinutes(1));
+        final Slice slice = new GoSlice(storage, cache);
+        MatcherAssert.assertThat(
+            "Wrong initial list",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody("v1.0.0".getBytes()), GoSliceTest.line(path)
+            )
+        );
+        storage.save(new KeyFromPath(path), new Content.From("v1.0.0\nv1.1.0".getBytes())).get();
+        cache.updated("example.com/cached");
+        MatcherAssert.assertThat(
+            "List is not updated",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody("v1.0.0\nv1.1.0".getBytes()), GoSliceTest.line(path)
+            )
+        );
+    }
+
+    @Test
+    void servesRepublishedInfoMatchingItsTag() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("again/go.mod"), "module example.com/again".getBytes());
+        bsto.save(new Key.From("again/again.go"), "package again".getBytes());
+        final Goproxy goproxy = new Goproxy(storage);
+        goproxy.update("example.com/again", "0.0.1").blockingAwait();
+        final Key info = new Key.From("example.com/again/@v/v0.0.1.info");
+        final byte[] first = bsto.value(info);
+        final long second = Instant.now().getEpochSecond();
+        while (Instant.now().getEpochSecond() == second) {
+            Thread.sleep(10L);
+        }
+        goproxy.update("example.com/again", "0.0.1").blockingAwait();
+        final String text = new String(first, StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            new GoSlice(storage),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasBody(first),
+                    new RsHasHeaders(
+                        new MapEntry<>("content-type", "application/json"),
+                        new MapEntry<>("Content-Length", String.valueOf(first.length)),
+                        new MapEntry<>("Cache-Control", GoSliceTest.IMMUTABLE),
+                        new MapEntry<>(
+                            "ETag",
+                            String.format(
+                                "\"%064x\"",
+                                new BigInteger(
+                                    1, MessageDigest.getInstance("SHA-256").digest(first)
+                                )
+                            )
+                        ),
+                        new MapEntry<>(
+                            "Last-Modified",
+                            DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                                Instant.parse(text.replaceAll(".*\"Time\":\"([^\"]+)\".*", "$1"))
+                                    .atZone(ZoneOffset.UTC)
+                            )
+                        )
+                    )
+                ),
+                GoSliceTest.line("example.com/again/@v/v0.0.1.info")
+            )
+        );
+    }
+
     /**
      * Constructs {@link GoSlice}.
      * @param storage Storage
@@ -184,14 +348,18 @@ class GoSliceTest {
      * Composes matchers.
      * @param body Body
      * @param type Content-type
+     * @param cache Cache-Control
      * @return List of matchers
      */
     private static AllOf<Response> matchers(final String body,
-        final String type) {
+        final String type, final String cache) {
         return new AllOf<>(
             new ListOf<Matcher<? super Response>>(
                 new RsHasBody(body.getBytes()),
-                new RsHasHeaders(new MapEntry<>("content-type", type))
+                new RsHasHeaders(
+                    new MapEntry<>("content-type", type),
+                    new MapEntry<>("Cache-Control", cache)
+                )
             )
         );
     }
@@ -223,4 +391,97 @@ class GoSliceTest {
         return storage;
     }
 
+    /**
+     * Storage which serves every archive as a huge stream of generated chunks,
+     * counting chunks generated.
+     * @since 0.4
+     */
+    private static final class EndlessZips implements Storage {
+
+        /**
+         * Number of chunks of an archive.
+         */
+        private static final int CHUNKS = 16 * 1024;
+
+        /**
+         * Chunk size.
+         */
+        private static final int CHUNK = 64 * 1024;
+
+        /**
+         * Origin storage.
+         */
+        private final Storage origin;
+
+        /**
+         * Generated chunks counter.
+         */
+        private final AtomicInteger generated;
+
+        /**
+         * Ctor.
+         * @param generated Generated chunks counter
+         */
+        EndlessZips(final AtomicInteger generated) {
+            this.origin = new InMemoryStorage();
+            this.generated = generated;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> exists(final Key key) {
+            return this.origin.exists(key);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Key>> list(final Key prefix) {
+            return this.origin.list(prefix);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(final Key key, final Content content) {
+            return this.origin.save(key, content);
+        }
+
+        @Override
+        public CompletableFuture<Void> move(final Key source, final Key destination) {
+            return this.origin.move(source, destination);
+        }
+
+        @Override
+        public CompletableFuture<Long> size(final Key key) {
+            return this.origin.size(key);
+        }
+
+        @Override
+        public CompletableFuture<Content> value(final Key key) {
+            final CompletableFuture<Content> res;
+            if (key.string().endsWith(".zip")) {
+                res = CompletableFuture.completedFuture(
+                    new Content.From(
+                        (long) EndlessZips.CHUNKS * EndlessZips.CHUNK,
+                        Flowable.range(0, EndlessZips.CHUNKS).map(
+                            num -> {
+                                this.generated.incrementAndGet();
+                                return ByteBuffer.allocate(EndlessZips.CHUNK);
+                            }
+                        )
+                    )
+                );
+            } else {
+                res = this.origin.value(key);
+            }
+            return res;
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(final Key key) {
+            return this.origin.delete(key);
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key key,
+            final Function<Storage, CompletionStage<T>> operation) {
+            return this.origin.exclusively(key, operation);
+        }
+    }
 }
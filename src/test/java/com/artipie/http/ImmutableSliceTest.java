@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.slice.SliceSimple;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cactoos.map.MapEntry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ImmutableSlice}.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class ImmutableSliceTest {
+
+    /**
+     * Artifact path.
+     */
+    private static final String PATH = "example.com/foo/@v/v1.0.0.zip";
+
+    /**
+     * Test storage.
+     */
+    private Storage storage;
+
+    /**
+     * Origin calls.
+     */
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void init() throws Exception {
+        this.storage = new InMemoryStorage();
+        this.calls = new AtomicInteger();
+        this.storage.save(
+            new Key.From("example.com/foo/@v/v1.0.0.zip.sha256"),
+            new Content.From("abc123".getBytes(StandardCharsets.US_ASCII))
+        ).get();
+        this.storage.save(
+            new Key.From("example.com/foo/@v/v1.0.0.info"),
+            new Content.From(
+                "{\"Version\":\"v1.0.0\",\"Time\":\"2020-03-17T08:05:12Z\"}"
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        ).get();
+    }
+
+    @Test
+    void addsValidators() {
+        MatcherAssert.assertThat(
+            new ImmutableSlice(this.storage, this.origin(RsStatus.OK)),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasBody("zip".getBytes(StandardCharsets.UTF_8)),
+                    new RsHasHeaders(
+                        new MapEntry<>("ETag", "\"abc123\""),
+                        new MapEntry<>("Last-Modified", "Tue, 17 Mar 2020 08:05:12 GMT"),
+                        new MapEntry<>("Cache-Control", "public, max-age=31536000, immutable")
+                    )
+                ),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH)
+            )
+        );
+    }
+
+    @Test
+    void respondsNotModifiedToMatchingTag() {
+        MatcherAssert.assertThat(
+            "Wrong response",
+            new ImmutableSlice(this.storage, this.origin(RsStatus.OK)),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.NOT_MODIFIED),
+                    new RsHasHeaders(
+                        new MapEntry<>("ETag", "\"abc123\""),
+                        new MapEntry<>("Last-Modified", "Tue, 17 Mar 2020 08:05:12 GMT"),
+                        new MapEntry<>("Cache-Control", "public, max-age=31536000, immutable")
+                    )
+                ),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH),
+                new Headers.From("If-None-Match", "\"other\", \"abc123\""),
+                Content.EMPTY
+            )
+        );
+        MatcherAssert.assertThat("Artifact was read", this.calls.get(), Matchers.equalTo(0));
+    }
+
+    @Test
+    void respondsNotModifiedSinceVersionTime() {
+        MatcherAssert.assertThat(
+            new ImmutableSlice(this.storage, this.origin(RsStatus.OK)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH),
+                new Headers.From("If-Modified-Since", "Tue, 17 Mar 2020 08:05:12 GMT"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void servesArtifactToOtherTag() {
+        MatcherAssert.assertThat(
+            new ImmutableSlice(this.storage, this.origin(RsStatus.OK)),
+            new SliceHasResponse(
+                new RsHasBody("zip".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH),
+                new Headers.From("If-None-Match", "\"other\""),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void servesArtifactModifiedLater() {
+        MatcherAssert.assertThat(
+            new ImmutableSlice(this.storage, this.origin(RsStatus.OK)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH),
+                new Headers.From("If-Modified-Since", "Mon, 16 Mar 2020 08:05:12 GMT"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void doesNotMarkMissingArtifact() {
+        MatcherAssert.assertThat(
+            new ImmutableSlice(
+                new InMemoryStorage(),
+                new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))
+            ),
+            new SliceHasResponse(
+                new RsHasHeaders(Collections.emptyList()),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH)
+            )
+        );
+    }
+
+    @Test
+    void readsValidatorsOfPublishedArtifactOnce() throws Exception {
+        final Slice slice = new ImmutableSlice(this.storage, this.origin(RsStatus.OK));
+        slice.response(
+            new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH).toString(),
+            Headers.EMPTY, Flowable.empty()
+        ).send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture().get();
+        this.storage.delete(new Key.From("example.com/foo/@v/v1.0.0.zip.sha256")).get();
+        this.storage.delete(new Key.From("example.com/foo/@v/v1.0.0.info")).get();
+        MatcherAssert.assertThat(
+            slice,
+            new SliceHasResponse(
+                new RsHasHeaders(
+                    new MapEntry<>("ETag", "\"abc123\""),
+                    new MapEntry<>("Last-Modified", "Tue, 17 Mar 2020 08:05:12 GMT"),
+                    new MapEntry<>("Cache-Control", "public, max-age=31536000, immutable")
+                ),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH)
+            )
+        );
+    }
+
+    @Test
+    void readsValidatorsOfArtifactWhenPublished() throws Exception {
+        final Storage empty = new InMemoryStorage();
+        final Slice slice = new ImmutableSlice(empty, this.origin(RsStatus.OK));
+        slice.response(
+            new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH).toString(),
+            Headers.EMPTY, Flowable.empty()
+        ).send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture().get();
+        empty.save(
+            new Key.From("example.com/foo/@v/v1.0.0.zip.sha256"),
+            new Content.From("def456".getBytes(StandardCharsets.US_ASCII))
+        ).get();
+        MatcherAssert.assertThat(
+            slice,
+            new SliceHasResponse(
+                new RsHasHeaders(
+                    new MapEntry<>("ETag", "\"def456\""),
+                    new MapEntry<>("Cache-Control", "public, max-age=31536000, immutable")
+                ),
+                new RequestLine(RqMethod.GET, ImmutableSliceTest.PATH)
+            )
+        );
+    }
+
+    /**
+     * Origin slice.
+     * @param status Response status
+     * @return Slice
+     */
+    private Slice origin(final RsStatus status) {
+        return (line, headers, body) -> {
+            this.calls.incrementAndGet();
+            return new RsFull(
+                status, Headers.EMPTY,
+                Flowable.just(ByteBuffer.wrap("zip".getBytes(StandardCharsets.UTF_8)))
+            );
+        };
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.goproxy.Goproxy;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.StandardRs;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link IndexSlice}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class IndexSliceTest {
+
+    @Test
+    void rendersList() throws Exception {
+        MatcherAssert.assertThat(
+            IndexSliceTest.response(IndexSliceTest.published(), "example.com/foo/@v/list"),
+            new RsHasBody("v0.0.1\nv0.0.2\n", StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void rendersInfo() throws Exception {
+        final Storage storage = IndexSliceTest.published();
+        MatcherAssert.assertThat(
+            IndexSliceTest.response(storage, "example.com/foo/@v/v0.0.1.info"),
+            new RsHasBody(
+                new BlockingStorage(storage).value(new Key.From("example.com/foo/@v/v0.0.1.info"))
+            )
+        );
+    }
+
+    @Test
+    void rendersLatest() throws Exception {
+        final Storage storage = IndexSliceTest.published();
+        MatcherAssert.assertThat(
+            IndexSliceTest.response(storage, "example.com/foo/@latest"),
+            new RsHasBody(
+                new BlockingStorage(storage).value(new Key.From("example.com/foo/@v/v0.0.2.info"))
+            )
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "example.com/foo/@v/v0.0.3.info", "example.com/foo/@v/v0.0.1.mod",
+        "example.com/bar/@v/list"
+    })
+    void passesToOrigin(final String path) throws Exception {
+        MatcherAssert.assertThat(
+            IndexSliceTest.response(IndexSliceTest.published(), path),
+            new RsHasBody("origin", StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Response of index slice with origin answering "origin".
+     * @param storage Storage
+     * @param path Request path
+     * @return Response
+     */
+    private static Response response(final Storage storage, final String path) {
+        return new IndexSlice(
+            storage,
+            (line, headers, body) -> new RsWithBody(
+                StandardRs.EMPTY, "origin", StandardCharsets.UTF_8
+            )
+        ).response(String.format("GET %s HTTP/1.1", path), Headers.EMPTY, Flowable.empty());
+    }
+
+    /**
+     * Storage with published versions 0.0.1 and 0.0.2 of example.com/foo module.
+     * @return Storage
+     * @throws Exception On error
+     */
+    private static Storage published() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(new Key.From("foo/go.mod"), "module example.com/foo".getBytes());
+        bsto.save(new Key.From("foo/foo.go"), "package foo".getBytes());
+        final Goproxy goproxy = new Goproxy(storage);
+        goproxy.update("example.com/foo", "0.0.2").blockingAwait();
+        goproxy.update("example.com/foo", "0.0.1").blockingAwait();
+        return storage;
+    }
+}
@@ -84,6 +84,47 @@ public class LatestSliceTest {
         );
     }
 
+    @Test
+    void returnsIndexedVersion() throws ExecutionException, InterruptedException {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            new KeyFromPath("example.com/indexed/@v/v0.0.1.info"), new Content.From(new byte[]{})
+        ).get();
+        final String info = "{\"Version\":\"v0.0.2\",\"Time\":\"2020-06-28T10:22:31Z\"}";
+        storage.save(
+            new KeyFromPath("example.com/indexed/@latest"), new Content.From(info.getBytes())
+        ).get();
+        MatcherAssert.assertThat(
+            new LatestSlice(storage).response(
+                "GET /example.com/indexed/@latest HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody(info.getBytes())
+        );
+    }
+
+    @Test
+    void choosesVersionBySemver() throws ExecutionException, InterruptedException {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            new KeyFromPath("example.com/semver/@v/v1.9.0.info"), new Content.From(new byte[]{})
+        ).get();
+        storage.save(
+            new KeyFromPath("example.com/semver/@v/v2.0.0-rc.1.info"),
+            new Content.From(new byte[]{})
+        ).get();
+        final String info = "{\"Version\":\"v1.10.0\",\"Time\":\"2020-06-28T10:22:31Z\"}";
+        storage.save(
+            new KeyFromPath("example.com/semver/@v/v1.10.0.info"),
+            new Content.From(info.getBytes())
+        ).get();
+        MatcherAssert.assertThat(
+            new LatestSlice(storage).response(
+                "GET /example.com/semver/@latest HTTP/1.1", Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody(info.getBytes())
+        );
+    }
+
     @Test
     void returnsNotFondWhenModuleNotFound() {
         MatcherAssert.assertThat(
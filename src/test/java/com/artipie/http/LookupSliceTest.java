@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link LookupSlice}.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class LookupSliceTest {
+
+    /**
+     * Archive hash.
+     */
+    private static final String ZIPHASH = "h1:QnjNZ0mm1KoKKpnJVGb5subDodAzRxsHSWKPERcLZao=";
+
+    @Test
+    void respondsWithGoSumLines() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            new Key.From("example.com/foo/bar/@v/v0.0.1.ziphash"),
+            new Content.From(
+                LookupSliceTest.ZIPHASH.getBytes(StandardCharsets.UTF_8)
+            )
+        ).get();
+        storage.save(
+            new Key.From("example.com/foo/bar/@v/v0.0.1.mod.sha256"),
+            new Content.From(
+                "41282b8a09ab2461b5f2280c0e883a244378aa01b8ae9dd290f99dbb23554e44"
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        ).get();
+        MatcherAssert.assertThat(
+            new LookupSlice(storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    String.join(
+                        "\n",
+                        String.format("example.com/foo/bar v0.0.1 %s", LookupSliceTest.ZIPHASH),
+                        String.format(
+                            "example.com/foo/bar v0.0.1/go.mod %s",
+                            "h1:ywUY53VurJ0SsyTMmYaxHOnC/CzZkSVUayhXT6BrLD4="
+                        ),
+                        ""
+                    ).getBytes(StandardCharsets.UTF_8)
+                ),
+                new RequestLine(RqMethod.GET, "/lookup/example.com/foo/bar@v0.0.1")
+            )
+        );
+    }
+
+    @Test
+    void respondsNotFoundForUnknownVersion() {
+        MatcherAssert.assertThat(
+            new LookupSlice(new InMemoryStorage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/lookup/example.com/foo/bar@v0.0.2")
+            )
+        );
+    }
+}
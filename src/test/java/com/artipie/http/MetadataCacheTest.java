@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Remaining;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MetadataCache}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class MetadataCacheTest {
+
+    @Test
+    void returnsCachedBody() {
+        final MetadataCache cache = new MetadataCache(1024, Duration.ofMinutes(1));
+        MetadataCacheTest.put(cache, "example.com/foo/@v/list", "v1.0.0");
+        MatcherAssert.assertThat(
+            MetadataCacheTest.body(cache, "example.com/foo/@v/list"),
+            Matchers.equalTo(Optional.of("v1.0.0"))
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final MetadataCache cache = new MetadataCache(40, Duration.ofMinutes(1));
+        MetadataCacheTest.put(cache, "a/@v/list", "0123456789");
+        MetadataCacheTest.put(cache, "b/@v/list", "0123456789");
+        MetadataCacheTest.body(cache, "a/@v/list");
+        MetadataCacheTest.put(cache, "c/@v/list", "0123456789");
+        MatcherAssert.assertThat(
+            new Object[] {
+                MetadataCacheTest.body(cache, "a/@v/list").isPresent(),
+                MetadataCacheTest.body(cache, "b/@v/list").isPresent(),
+                MetadataCacheTest.body(cache, "c/@v/list").isPresent(),
+            },
+            Matchers.arrayContaining(true, false, true)
+        );
+    }
+
+    @Test
+    void expiresEntries() {
+        final MetadataCache cache = new MetadataCache(
+            1024, Duration.ZERO, Clock.fixed(Instant.EPOCH, ZoneOffset.UTC)
+        );
+        MetadataCacheTest.put(cache, "example.com/foo/@v/list", "v1.0.0");
+        MatcherAssert.assertThat(
+            MetadataCacheTest.body(cache, "example.com/foo/@v/list"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void invalidatesModule() {
+        final MetadataCache cache = new MetadataCache(1024, Duration.ofMinutes(1));
+        MetadataCacheTest.put(cache, "example.com/foo/@v/list", "v1.0.0");
+        MetadataCacheTest.put(cache, "example.com/foobar/@v/list", "v2.0.0");
+        cache.updated("example.com/foo");
+        MatcherAssert.assertThat(
+            new Object[] {
+                MetadataCacheTest.body(cache, "example.com/foo/@v/list").isPresent(),
+                MetadataCacheTest.body(cache, "example.com/foobar/@v/list").isPresent(),
+            },
+            Matchers.arrayContaining(false, true)
+        );
+    }
+
+    @Test
+    void skipsItemLoadedBeforeInvalidation() {
+        final MetadataCache cache = new MetadataCache(1024, Duration.ofMinutes(1));
+        final long generation = cache.generation();
+        cache.updated("example.com/foo");
+        cache.put(
+            "example.com/foo/@v/list", generation, Headers.EMPTY,
+            "v1.0.0".getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            MetadataCacheTest.body(cache, "example.com/foo/@v/list"),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    /**
+     * Put item to the cache.
+     * @param cache Cache
+     * @param key Key
+     * @param body Body
+     */
+    private static void put(final MetadataCache cache, final String key, final String body) {
+        cache.put(key, cache.generation(), Headers.EMPTY, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cached body.
+     * @param cache Cache
+     * @param key Key
+     * @return Body text if cached
+     */
+    private static Optional<String> body(final MetadataCache cache, final String key) {
+        return cache.get(key).map(
+            item -> new String(new Remaining(item.body()).bytes(), StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.MemoryMetrics;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MeteredExecutor}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class MeteredExecutorTest {
+
+    @Test
+    void measuresTasks() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        final AtomicInteger runs = new AtomicInteger();
+        final MeteredExecutor exec = new MeteredExecutor(Runnable::run, "test", metrics);
+        exec.execute(runs::incrementAndGet);
+        exec.execute(runs::incrementAndGet);
+        MatcherAssert.assertThat(
+            new long[] {
+                runs.get(),
+                metrics.counter("executor.test.tasks"),
+                metrics.timer("executor.test.wait").count(),
+                metrics.timer("executor.test.run").count(),
+            },
+            Matchers.equalTo(new long[] {2, 2, 2, 2})
+        );
+    }
+
+    @Test
+    void countsRejectedTasks() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        Assertions.assertThrows(
+            RejectedExecutionException.class,
+            () -> new MeteredExecutor(
+                task -> {
+                    throw new RejectedExecutionException();
+                },
+                "full", metrics
+            ).execute(() -> { })
+        );
+        MatcherAssert.assertThat(
+            metrics.counter("executor.full.rejected"),
+            Matchers.equalTo(1L)
+        );
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.goproxy.MemoryMetrics;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MeteredSlice}.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class MeteredSliceTest {
+
+    @Test
+    void measuresRequests() {
+        final MemoryMetrics metrics = new MemoryMetrics();
+        final Slice slice = new MeteredSlice(
+            (line, headers, body) -> new RsFull(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.just(ByteBuffer.wrap("zip".getBytes(StandardCharsets.UTF_8)))
+            ),
+            "zip", metrics
+        );
+        for (int idx = 0; idx < 2; idx += 1) {
+            MatcherAssert.assertThat(
+                slice.response("GET /foo/@v/v1.zip HTTP/1.1", Headers.EMPTY, Flowable.empty()),
+                new RsHasBody("zip".getBytes(StandardCharsets.UTF_8))
+            );
+        }
+        MatcherAssert.assertThat(
+            new long[] {
+                metrics.counter("http.requests.zip"),
+                metrics.counter("http.bytes.zip"),
+                metrics.timer("http.latency.zip").count(),
+            },
+            Matchers.equalTo(new long[] {2, 6, 2})
+        );
+    }
+}
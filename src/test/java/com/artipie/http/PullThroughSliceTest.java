@@ -0,0 +1,240 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PullThroughSlice}.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
+final class PullThroughSliceTest {
+
+    /**
+     * Request line.
+     */
+    private static final String LINE = "GET /example.com/foo/@v/v1.0.0.mod HTTP/1.1";
+
+    /**
+     * File key.
+     */
+    private static final Key KEY = new Key.From("example.com/foo/@v/v1.0.0.mod");
+
+    /**
+     * Test storage.
+     */
+    private Storage storage;
+
+    /**
+     * Upstream calls.
+     */
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+        this.calls = new AtomicInteger();
+    }
+
+    @Test
+    void pullsAndSavesMissingFile() throws Exception {
+        MatcherAssert.assertThat(
+            "Wrong body",
+            new PullThroughSlice(this.upstream(RsStatus.OK), this.storage, false).response(
+                PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody("module example.com/foo".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat(
+            "File is not saved",
+            new String(
+                new BlockingStorage(this.storage).value(PullThroughSliceTest.KEY),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("module example.com/foo")
+        );
+    }
+
+    @Test
+    void servesStoredFileWithoutUpstream() throws Exception {
+        this.save("module stored");
+        MatcherAssert.assertThat(
+            "Wrong body",
+            new PullThroughSlice(this.upstream(RsStatus.OK), this.storage, false).response(
+                PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody("module stored".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat("Upstream was called", this.calls.get(), Matchers.equalTo(0));
+    }
+
+    @Test
+    void refreshesMutableFile() throws Exception {
+        this.save("module stored");
+        MatcherAssert.assertThat(
+            new PullThroughSlice(this.upstream(RsStatus.OK), this.storage, true).response(
+                PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasBody("module example.com/foo".getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void servesStoredMutableFileIfUpstreamFails() throws Exception {
+        this.save("module stored");
+        MatcherAssert.assertThat(
+            new PullThroughSlice(this.upstream(RsStatus.UNAVAILABLE), this.storage, true)
+                .response(PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("module stored".getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void passesNotFoundWithoutSaving() throws Exception {
+        MatcherAssert.assertThat(
+            "Wrong status",
+            new PullThroughSlice(this.upstream(RsStatus.NOT_FOUND), this.storage, false)
+                .response(PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+        MatcherAssert.assertThat(
+            "File was saved",
+            new BlockingStorage(this.storage).exists(PullThroughSliceTest.KEY),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void respondsUnavailableIfNothingStored() {
+        MatcherAssert.assertThat(
+            new PullThroughSlice(this.upstream(RsStatus.UNAVAILABLE), this.storage, false)
+                .response(PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasStatus(RsStatus.UNAVAILABLE)
+        );
+    }
+
+    @Test
+    void coalescesConcurrentPulls() {
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final Slice upstream = this.upstream(RsStatus.OK);
+        final Slice slice = new PullThroughSlice(
+            (line, headers, body) -> connection -> gate.thenCompose(
+                nothing -> upstream.response(line, headers, body).send(connection)
+            ),
+            this.storage,
+            false
+        );
+        final CompletableFuture<String> first = PullThroughSliceTest.text(
+            slice.response(PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        final CompletableFuture<String> second = PullThroughSliceTest.text(
+            slice.response(PullThroughSliceTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        gate.complete(null);
+        MatcherAssert.assertThat(
+            "Wrong bodies",
+            Arrays.asList(first.join(), second.join()),
+            Matchers.everyItem(Matchers.equalTo("module example.com/foo"))
+        );
+        MatcherAssert.assertThat(
+            "Upstream was called more than once", this.calls.get(), Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * Save file to the storage.
+     * @param text File text
+     * @throws Exception On error
+     */
+    private void save(final String text) throws Exception {
+        this.storage.save(
+            PullThroughSliceTest.KEY, new Content.From(text.getBytes(StandardCharsets.UTF_8))
+        ).get();
+    }
+
+    /**
+     * Upstream slice.
+     * @param status Response status
+     * @return Slice
+     */
+    private Slice upstream(final RsStatus status) {
+        return (line, headers, body) -> {
+            this.calls.incrementAndGet();
+            return new RsWithStatus(
+                new RsFull(
+                    RsStatus.OK, Headers.EMPTY,
+                    Flowable.just(
+                        ByteBuffer.wrap("module example.com/foo".getBytes(StandardCharsets.UTF_8))
+                    )
+                ),
+                status
+            );
+        };
+    }
+
+    /**
+     * Response body text.
+     * @param response Response
+     * @return Body text when it's read
+     */
+    private static CompletableFuture<String> text(final Response response) {
+        final CompletableFuture<String> res = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> {
+                final StringBuilder text = new StringBuilder();
+                Flowable.fromPublisher(body).subscribe(
+                    buf -> text.append(
+                        new String(new Remaining(buf).bytes(), StandardCharsets.UTF_8)
+                    ),
+                    res::completeExceptionally,
+                    () -> res.complete(text.toString())
+                );
+                return res.thenAccept(txt -> { });
+            }
+        );
+        return res;
+    }
+}
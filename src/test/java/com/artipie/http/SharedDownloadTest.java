@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SharedDownload}.
+ * @since 0.4
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class SharedDownloadTest {
+
+    /**
+     * Request line.
+     */
+    private static final String LINE = "GET /example.com/foo/@v/v1.0.0.zip HTTP/1.1";
+
+    /**
+     * Archive key.
+     */
+    private static final Key ZIP = new Key.From("example.com/foo/@v/v1.0.0.zip");
+
+    @Test
+    void readsStorageOnceForConcurrentRequests() {
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final Gated storage = new Gated(gate);
+        storage.save(
+            SharedDownloadTest.ZIP, new Content.From("zip".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        final SharedDownload slice = new SharedDownload(storage);
+        final CompletableFuture<String> first = SharedDownloadTest.text(
+            slice.response(SharedDownloadTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        final CompletableFuture<String> second = SharedDownloadTest.text(
+            slice.response(SharedDownloadTest.LINE, Headers.EMPTY, Flowable.empty())
+        );
+        gate.complete(null);
+        MatcherAssert.assertThat(
+            "Wrong bodies",
+            Arrays.asList(first.join(), second.join()),
+            Matchers.everyItem(Matchers.equalTo("zip"))
+        );
+        MatcherAssert.assertThat("Storage read twice", storage.reads(), Matchers.equalTo(1));
+        MatcherAssert.assertThat("Read was not landed", slice.size(), Matchers.equalTo(0));
+    }
+
+    @Test
+    void readsStorageAgainForLateRequests() {
+        final Gated storage = new Gated(CompletableFuture.allOf());
+        storage.save(
+            SharedDownloadTest.ZIP, new Content.From("late".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        final SharedDownload slice = new SharedDownload(storage);
+        SharedDownloadTest.text(
+            slice.response(SharedDownloadTest.LINE, Headers.EMPTY, Flowable.empty())
+        ).join();
+        MatcherAssert.assertThat(
+            slice.response(SharedDownloadTest.LINE, Headers.EMPTY, Flowable.empty()),
+            new RsHasBody("late".getBytes(StandardCharsets.UTF_8))
+        );
+        MatcherAssert.assertThat("Storage read once", storage.reads(), Matchers.equalTo(2));
+    }
+
+    @Test
+    void returnsNotFoundForMissingFile() {
+        MatcherAssert.assertThat(
+            new SharedDownload(new InMemoryStorage()).response(
+                SharedDownloadTest.LINE, Headers.EMPTY, Flowable.empty()
+            ),
+            new RsHasStatus(RsStatus.NOT_FOUND)
+        );
+    }
+
+    /**
+     * Response body text.
+     * @param response Response
+     * @return Body text when it's read
+     */
+    private static CompletableFuture<String> text(final Response response) {
+        final CompletableFuture<String> res = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> {
+                final StringBuilder text = new StringBuilder();
+                Flowable.fromPublisher(body).subscribe(
+                    buf -> text.append(
+                        new String(new Remaining(buf).bytes(), StandardCharsets.UTF_8)
+                    ),
+                    res::completeExceptionally,
+                    () -> res.complete(text.toString())
+                );
+                return res.thenAccept(txt -> { });
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Storage which returns values when the gate is open, counting reads.
+     * @since 0.4
+     */
+    private static final class Gated implements Storage {
+
+        /**
+         * Origin storage.
+         */
+        private final Storage origin;
+
+        /**
+         * Gate.
+         */
+        private final CompletableFuture<Void> gate;
+
+        /**
+         * Reads counter.
+         */
+        private final AtomicInteger counter;
+
+        /**
+         * Ctor.
+         * @param gate Gate
+         */
+        Gated(final CompletableFuture<Void> gate) {
+            this.origin = new InMemoryStorage();
+            this.gate = gate;
+            this.counter = new AtomicInteger();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> exists(final Key key) {
+            return this.origin.exists(key);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Key>> list(final Key prefix) {
+            return this.origin.list(prefix);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(final Key key, final Content content) {
+            return this.origin.save(key, content);
+        }
+
+        @Override
+        public CompletableFuture<Void> move(final Key source, final Key destination) {
+            return this.origin.move(source, destination);
+        }
+
+        @Override
+        public CompletableFuture<Long> size(final Key key) {
+            return this.origin.size(key);
+        }
+
+        @Override
+        public CompletableFuture<Content> value(final Key key) {
+            this.counter.incrementAndGet();
+            return this.gate.thenCompose(nothing -> this.origin.value(key));
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(final Key key) {
+            return this.origin.delete(key);
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key key,
+            final Function<Storage, CompletionStage<T>> operation) {
+            return this.origin.exclusively(key, operation);
+        }
+
+        /**
+         * Number of values read.
+         * @return Reads count
+         */
+        int reads() {
+            return this.counter.get();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SingleFlight}.
+ * @since 0.4
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class SingleFlightTest {
+
+    @Test
+    void followersGetLeaderResult() {
+        final SingleFlight<String, String> flights = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<String> operation = new CompletableFuture<>();
+        final CompletionStage<String> first = flights.join(
+            "a", land -> {
+                calls.incrementAndGet();
+                return operation;
+            }
+        );
+        final CompletionStage<String> second = flights.join(
+            "a", land -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture("other");
+            }
+        );
+        operation.complete("result");
+        MatcherAssert.assertThat(
+            "Wrong results",
+            new String[] {
+                first.toCompletableFuture().join(), second.toCompletableFuture().join(),
+            },
+            Matchers.arrayContaining("result", "result")
+        );
+        MatcherAssert.assertThat("Operation started twice", calls.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    void startsNewFlightAfterLanding() {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        for (int idx = 0; idx < 2; idx += 1) {
+            flights.join(
+                "b", land -> {
+                    land.run();
+                    return CompletableFuture.completedFuture(calls.incrementAndGet());
+                }
+            );
+        }
+        MatcherAssert.assertThat("Flight did not land", flights.size(), Matchers.equalTo(0));
+        MatcherAssert.assertThat("Operation was not restarted", calls.get(), Matchers.equalTo(2));
+    }
+
+    @Test
+    void landsFailedFlight() {
+        final SingleFlight<String, String> flights = new SingleFlight<>();
+        final CompletionStage<String> failed = flights.join(
+            "c", land -> {
+                throw new IllegalStateException("Failed to start");
+            }
+        );
+        Assertions.assertThrows(
+            CompletionException.class, () -> failed.toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(flights.size(), Matchers.equalTo(0));
+    }
+
+    @Test
+    void keepsFlightUntilLanded() {
+        final SingleFlight<String, String> flights = new SingleFlight<>();
+        flights.join("d", land -> CompletableFuture.completedFuture("done"));
+        MatcherAssert.assertThat(
+            flights.join("d", land -> CompletableFuture.completedFuture("again"))
+                .toCompletableFuture().join(),
+            Matchers.equalTo("done")
+        );
+    }
+}